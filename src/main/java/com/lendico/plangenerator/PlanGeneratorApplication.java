@@ -2,11 +2,17 @@ package com.lendico.plangenerator;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class PlanGeneratorApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(PlanGeneratorApplication.class, args);
+    ConfigurableApplicationContext context =
+        SpringApplication.run(PlanGeneratorApplication.class, args);
+    // Training run of the fast-startup build, the JVM writes its class data archive on exit.
+    if (context.getEnvironment().getProperty("plan.exit-after-startup", Boolean.class, false)) {
+      System.exit(SpringApplication.exit(context));
+    }
   }
 }
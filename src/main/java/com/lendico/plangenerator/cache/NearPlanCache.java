@@ -0,0 +1,77 @@
+package com.lendico.plangenerator.cache;
+
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local least recently used plan cache. Entries expire after the time to live, which bounds how
+ * long an entry invalidated on another node can still be served from here. Plans are kept in {@link
+ * PlanCodec} format, so every lookup returns a copy its caller may modify.
+ */
+public class NearPlanCache implements PlanCache {
+
+  private final long ttlMillis;
+  private final Map<String, Entry> entries;
+
+  public NearPlanCache(int maxEntries, long ttlMillis) {
+    this.ttlMillis = ttlMillis;
+    this.entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  @Override
+  public RepaymentPlan get(String key) {
+    byte[] plan;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expiresAt < System.currentTimeMillis()) {
+        entries.remove(key);
+        return null;
+      }
+      plan = entry.plan;
+    }
+    try {
+      return PlanCodec.decode(plan);
+    } catch (IOException e) {
+      throw new IllegalStateException("Plan encoded by this cache cannot be decoded", e);
+    }
+  }
+
+  @Override
+  public void put(String key, RepaymentPlan plan) {
+    Entry entry = new Entry(PlanCodec.encode(plan), System.currentTimeMillis() + ttlMillis);
+    synchronized (this) {
+      entries.put(key, entry);
+    }
+  }
+
+  @Override
+  public synchronized void invalidate(String key) {
+    entries.remove(key);
+  }
+
+  @Override
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  private static final class Entry {
+    private final byte[] plan;
+    private final long expiresAt;
+
+    private Entry(byte[] plan, long expiresAt) {
+      this.plan = plan;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
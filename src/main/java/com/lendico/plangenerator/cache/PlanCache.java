@@ -0,0 +1,18 @@
+package com.lendico.plangenerator.cache;
+
+import com.lendico.plangenerator.domain.RepaymentPlan;
+
+/**
+ * Cache of generated repayment plans keyed by criteria hash, see {@link
+ * com.lendico.plangenerator.utility.PlanIdentifier}. Implementations must not fail the request when
+ * the cache is unavailable, a failing cache behaves like a miss.
+ */
+public interface PlanCache {
+  RepaymentPlan get(String key);
+
+  void put(String key, RepaymentPlan plan);
+
+  void invalidate(String key);
+
+  void clear();
+}
@@ -0,0 +1,156 @@
+package com.lendico.plangenerator.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Client of the shared plan cache. Connections are reused through a small pool, a connection
+ * failing within an exchange is closed and the error is passed to the caller.
+ */
+public class PlanCacheClient implements Closeable {
+
+  private final String host;
+  private final int port;
+  private final int timeoutMillis;
+  private final BlockingQueue<Connection> idleConnections;
+
+  public PlanCacheClient(String host, int port, int timeoutMillis, int poolSize) {
+    this.host = host;
+    this.port = port;
+    this.timeoutMillis = timeoutMillis;
+    this.idleConnections = new ArrayBlockingQueue<>(poolSize);
+  }
+
+  /**
+   * Get cached value.
+   *
+   * @param key cache key
+   * @return value or null on miss
+   * @throws IOException if the cache cannot be reached
+   */
+  public byte[] get(String key) throws IOException {
+    return execute(
+        PlanCacheProtocol.OP_GET,
+        key,
+        null,
+        in -> {
+          byte[] value = new byte[readLength(in)];
+          in.readFully(value);
+          return value;
+        });
+  }
+
+  public void put(String key, byte[] value) throws IOException {
+    execute(PlanCacheProtocol.OP_PUT, key, value, in -> null);
+  }
+
+  /**
+   * Remove cached value.
+   *
+   * @param key cache key
+   * @return true if value was cached
+   * @throws IOException if the cache cannot be reached
+   */
+  public boolean delete(String key) throws IOException {
+    return execute(PlanCacheProtocol.OP_DELETE, key, null, in -> Boolean.TRUE) != null;
+  }
+
+  public void clear() throws IOException {
+    execute(PlanCacheProtocol.OP_CLEAR, "", null, in -> null);
+  }
+
+  @Override
+  public void close() {
+    Connection connection;
+    while ((connection = idleConnections.poll()) != null) {
+      connection.close();
+    }
+  }
+
+  // Send request and read response, returns null when server reports a miss.
+  private <T> T execute(int operation, String key, byte[] value, ResponseReader<T> reader)
+      throws IOException {
+    Connection connection = idleConnections.poll();
+    if (connection == null) {
+      connection = connect();
+    }
+    try {
+      connection.out.writeByte(operation);
+      connection.out.writeUTF(key);
+      if (value != null) {
+        connection.out.writeInt(value.length);
+        connection.out.write(value);
+      }
+      connection.out.flush();
+      int status = connection.in.readUnsignedByte();
+      T result;
+      if (status == PlanCacheProtocol.STATUS_OK) {
+        result = reader.read(connection.in);
+      } else if (status == PlanCacheProtocol.STATUS_MISS) {
+        result = null;
+      } else {
+        throw new IOException("Plan cache server rejected operation " + operation);
+      }
+      if (!idleConnections.offer(connection)) {
+        connection.close();
+      }
+      return result;
+    } catch (IOException | RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  private Connection connect() throws IOException {
+    Socket socket = new Socket();
+    try {
+      socket.setTcpNoDelay(true);
+      socket.setSoTimeout(timeoutMillis);
+      socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+      return new Connection(socket);
+    } catch (IOException e) {
+      socket.close();
+      throw e;
+    }
+  }
+
+  static int readLength(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > PlanCacheProtocol.MAX_VALUE_SIZE) {
+      throw new IOException("Invalid plan cache value length " + length);
+    }
+    return length;
+  }
+
+  private interface ResponseReader<T> {
+    T read(DataInputStream in) throws IOException;
+  }
+
+  private static final class Connection {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    private void close() {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // connection is discarded anyway
+      }
+    }
+  }
+}
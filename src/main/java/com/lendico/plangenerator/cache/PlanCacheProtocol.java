@@ -0,0 +1,22 @@
+package com.lendico.plangenerator.cache;
+
+/**
+ * Request/response protocol between {@link PlanCacheClient} and {@link PlanCacheServer}. Every
+ * request starts with an operation byte followed by the key as modified UTF-8 string; PUT adds
+ * value length (int) and value bytes. Every response starts with a status byte; a GET hit adds
+ * value length and value bytes.
+ */
+final class PlanCacheProtocol {
+  static final int OP_GET = 1;
+  static final int OP_PUT = 2;
+  static final int OP_DELETE = 3;
+  static final int OP_CLEAR = 4;
+
+  static final int STATUS_OK = 0;
+  static final int STATUS_MISS = 1;
+  static final int STATUS_ERROR = 2;
+
+  static final int MAX_VALUE_SIZE = 16 * 1024 * 1024;
+
+  private PlanCacheProtocol() {}
+}
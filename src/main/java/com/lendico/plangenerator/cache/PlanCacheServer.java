@@ -0,0 +1,155 @@
+package com.lendico.plangenerator.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Stand-in shared plan cache server for local runs and tests. Values are kept in memory; once the
+ * entry limit is reached an arbitrary entry is dropped for every new one. Start it with {@code
+ * PlanCacheServer [port] [maxEntries]}.
+ */
+public class PlanCacheServer implements Closeable {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanCacheServer.class);
+  public static final int DEFAULT_PORT = 7379;
+
+  private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+  private final int maxEntries;
+  private final ServerSocket serverSocket;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private volatile boolean closed;
+
+  public PlanCacheServer(int port, int maxEntries) throws IOException {
+    this.maxEntries = maxEntries;
+    this.serverSocket = new ServerSocket(port);
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    int maxEntries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+    PlanCacheServer server = new PlanCacheServer(port, maxEntries);
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    server.start();
+  }
+
+  /** Accept connections in background. */
+  public void start() {
+    executor.execute(this::accept);
+    LOGGER.info("Plan cache server listening on port {}", getPort());
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      LOGGER.warn("Plan cache server socket cannot be closed", e);
+    }
+    executor.shutdownNow();
+  }
+
+  private void accept() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        executor.execute(() -> serve(socket));
+      } catch (IOException e) {
+        if (!closed) {
+          LOGGER.error("Plan cache server cannot accept connections", e);
+        }
+        return;
+      }
+    }
+  }
+
+  // Handle requests of one connection until the client disconnects.
+  private void serve(Socket socket) {
+    try (Socket connection = socket;
+        DataInputStream in =
+            new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+        DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()))) {
+      while (!closed) {
+        int operation = in.read();
+        if (operation < 0) {
+          return;
+        }
+        String key = in.readUTF();
+        switch (operation) {
+          case PlanCacheProtocol.OP_GET:
+            byte[] value = entries.get(key);
+            if (value == null) {
+              out.writeByte(PlanCacheProtocol.STATUS_MISS);
+            } else {
+              out.writeByte(PlanCacheProtocol.STATUS_OK);
+              out.writeInt(value.length);
+              out.write(value);
+            }
+            break;
+          case PlanCacheProtocol.OP_PUT:
+            byte[] newValue = new byte[PlanCacheClient.readLength(in)];
+            in.readFully(newValue);
+            evictIfFull(key);
+            entries.put(key, newValue);
+            out.writeByte(PlanCacheProtocol.STATUS_OK);
+            break;
+          case PlanCacheProtocol.OP_DELETE:
+            out.writeByte(
+                entries.remove(key) == null
+                    ? PlanCacheProtocol.STATUS_MISS
+                    : PlanCacheProtocol.STATUS_OK);
+            break;
+          case PlanCacheProtocol.OP_CLEAR:
+            entries.clear();
+            out.writeByte(PlanCacheProtocol.STATUS_OK);
+            break;
+          default:
+            out.writeByte(PlanCacheProtocol.STATUS_ERROR);
+            out.flush();
+            return;
+        }
+        out.flush();
+      }
+    } catch (EOFException | SocketException e) {
+      LOGGER.debug("Plan cache client disconnected: {}", e.toString());
+    } catch (IOException e) {
+      LOGGER.warn("Plan cache connection failed", e);
+    }
+  }
+
+  private void evictIfFull(String key) {
+    if (entries.size() < maxEntries || entries.containsKey(key)) {
+      return;
+    }
+    Iterator<String> keys = entries.keySet().iterator();
+    if (keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.lendico.plangenerator.cache;
+
+import com.lendico.plangenerator.domain.Payment;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact binary format of repayment plans for the shared cache. Numbers are written as zig-zag
+ * variable length integers, amounts as scale plus minimal two's complement unscaled value and dates
+ * as epoch milliseconds, which is several times smaller than the json of the plan. Decoded plans
+ * are equal to the encoded ones including the scale of amounts.
+ */
+public class PlanCodec {
+
+  private static final int VERSION = 1;
+
+  private PlanCodec() {}
+
+  public static byte[] encode(RepaymentPlan plan) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(VERSION);
+      writeString(out, plan.getId());
+      writeVarLong(out, plan.getTotal() == null ? 0 : plan.getTotal() + 1);
+      List<Payment> payments = plan.getBorrowerPayments();
+      writeVarLong(out, payments == null ? 0 : payments.size() + 1);
+      if (payments != null) {
+        for (Payment payment : payments) {
+          writeDate(out, payment.getDate());
+          writeDecimal(out, payment.getBorrowerPaymentAmount());
+          writeDecimal(out, payment.getInitialOutstandingPrincipal());
+          writeDecimal(out, payment.getInterest());
+          writeDecimal(out, payment.getPrincipal());
+          writeDecimal(out, payment.getRemainingOutstandingPrincipal());
+        }
+      }
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("In memory stream cannot fail", e);
+    }
+  }
+
+  public static RepaymentPlan decode(byte[] value) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+    int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported plan format version " + version);
+    }
+    String id = readString(in);
+    long total = readVarLong(in);
+    int size = (int) readVarLong(in);
+    List<Payment> payments = null;
+    if (size > 0) {
+      payments = new ArrayList<>(size - 1);
+      for (int i = 1; i < size; i++) {
+        payments.add(
+            Payment.builder()
+                .date(readDate(in))
+                .borrowerPaymentAmount(readDecimal(in))
+                .initialOutstandingPrincipal(readDecimal(in))
+                .interest(readDecimal(in))
+                .principal(readDecimal(in))
+                .remainingOutstandingPrincipal(readDecimal(in))
+                .build());
+      }
+    }
+    return RepaymentPlan.builder()
+        .id(id)
+        .total(total == 0 ? null : total - 1)
+        .borrowerPayments(payments)
+        .build();
+  }
+
+  // Null is written as length 0, other values as length + 1.
+  private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+    if (value == null) {
+      writeVarLong(out, 0);
+      return;
+    }
+    byte[] unscaled = value.unscaledValue().toByteArray();
+    writeVarLong(out, unscaled.length + 1);
+    out.write(unscaled);
+    writeVarLong(out, value.scale());
+  }
+
+  private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+    int length = (int) readVarLong(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] unscaled = new byte[length - 1];
+    in.readFully(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), (int) readVarLong(in));
+  }
+
+  private static void writeDate(DataOutputStream out, Date date) throws IOException {
+    out.writeBoolean(date != null);
+    if (date != null) {
+      writeVarLong(out, date.getTime());
+    }
+  }
+
+  private static Date readDate(DataInputStream in) throws IOException {
+    return in.readBoolean() ? new Date(readVarLong(in)) : null;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      writeVarLong(out, 0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(out, bytes.length + 1);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = (int) readVarLong(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length - 1];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    out.writeByte((int) zigZag);
+  }
+
+  private static long readVarLong(DataInputStream in) throws IOException {
+    long zigZag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      zigZag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+    }
+    throw new IOException("Malformed variable length number");
+  }
+}
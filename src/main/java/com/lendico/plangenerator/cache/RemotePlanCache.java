@@ -0,0 +1,110 @@
+package com.lendico.plangenerator.cache;
+
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plan cache shared by all nodes, plans are stored in {@link PlanCodec} format. Failed lookups and
+ * updates are treated as misses, failed invalidations are reported to the caller.
+ *
+ * <p>Lookups and updates run on the request path, so a circuit breaker keeps a slow or unavailable
+ * cache server from adding its timeout to every request: after the configured number of consecutive
+ * failures they are skipped for the open duration. Then a single request tries the server again, a
+ * success closes the circuit and a failure keeps it open for another period.
+ */
+public class RemotePlanCache implements PlanCache {
+
+  public static final Logger LOGGER = LogManager.getLogger(RemotePlanCache.class);
+
+  private final PlanCacheClient client;
+  private final int failureThreshold;
+  private final long openNanos;
+  private final AtomicInteger failures = new AtomicInteger();
+  private final AtomicLong openedAt = new AtomicLong();
+
+  public RemotePlanCache(PlanCacheClient client, int failureThreshold, long openMillis) {
+    this.client = client;
+    this.failureThreshold = failureThreshold;
+    this.openNanos = openMillis * 1_000_000;
+  }
+
+  @Override
+  public RepaymentPlan get(String key) {
+    if (!allowRequest()) {
+      return null;
+    }
+    try {
+      byte[] value = client.get(key);
+      failures.set(0);
+      return value == null ? null : PlanCodec.decode(value);
+    } catch (IOException e) {
+      recordFailure("lookup", key, e);
+      return null;
+    }
+  }
+
+  @Override
+  public void put(String key, RepaymentPlan plan) {
+    if (!allowRequest()) {
+      return;
+    }
+    try {
+      client.put(key, PlanCodec.encode(plan));
+      failures.set(0);
+    } catch (IOException e) {
+      recordFailure("update", key, e);
+    }
+  }
+
+  /** @return true while lookups and updates are skipped */
+  public boolean isOpen() {
+    return failures.get() >= failureThreshold;
+  }
+
+  // Closed circuit allows every request, open circuit only one once the open duration has passed.
+  private boolean allowRequest() {
+    if (!isOpen()) {
+      return true;
+    }
+    long opened = openedAt.get();
+    long now = System.nanoTime();
+    return now - opened >= openNanos && openedAt.compareAndSet(opened, now);
+  }
+
+  private void recordFailure(String operation, String key, IOException e) {
+    LOGGER.warn("Remote plan cache {} of {} failed: {}", operation, key, e.toString());
+    int failed = failures.incrementAndGet();
+    if (failed >= failureThreshold) {
+      openedAt.set(System.nanoTime());
+      if (failed == failureThreshold) {
+        LOGGER.warn(
+            "Remote plan cache failed {} times in a row, skipping it for {} ms",
+            failed,
+            openNanos / 1_000_000);
+      }
+    }
+  }
+
+  @Override
+  public void invalidate(String key) {
+    try {
+      client.delete(key);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Remote plan cache invalidation of " + key + " failed", e);
+    }
+  }
+
+  @Override
+  public void clear() {
+    try {
+      client.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Remote plan cache cannot be cleared", e);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.lendico.plangenerator.cache;
+
+import com.lendico.plangenerator.domain.RepaymentPlan;
+
+/** Two tier plan cache, local near cache in front of the cache shared by all nodes. */
+public class TieredPlanCache implements PlanCache {
+
+  private final PlanCache near;
+  private final PlanCache remote;
+
+  public TieredPlanCache(PlanCache near, PlanCache remote) {
+    this.near = near;
+    this.remote = remote;
+  }
+
+  @Override
+  public RepaymentPlan get(String key) {
+    RepaymentPlan plan = near.get(key);
+    if (plan == null) {
+      plan = remote.get(key);
+      if (plan != null) {
+        near.put(key, plan);
+      }
+    }
+    return plan;
+  }
+
+  @Override
+  public void put(String key, RepaymentPlan plan) {
+    near.put(key, plan);
+    remote.put(key, plan);
+  }
+
+  @Override
+  public void invalidate(String key) {
+    remote.invalidate(key);
+    near.invalidate(key);
+  }
+
+  @Override
+  public void clear() {
+    remote.clear();
+    near.clear();
+  }
+}
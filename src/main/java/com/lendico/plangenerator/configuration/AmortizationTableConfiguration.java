@@ -0,0 +1,79 @@
+package com.lendico.plangenerator.configuration;
+
+import com.lendico.plangenerator.utility.AmortizationTable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Catalogue of standard products and location of their precomputed amortization table. */
+@Configuration
+@ConfigurationProperties(prefix = "plan.amortization-table")
+public class AmortizationTableConfiguration {
+  public static final Logger LOGGER = LogManager.getLogger(AmortizationTableConfiguration.class);
+
+  private String path;
+  private List<BigDecimal> rates = new ArrayList<>();
+  private List<Integer> durations = new ArrayList<>();
+
+  /**
+   * Memory map amortization table at startup. Missing or invalid table falls back to live
+   * calculation for every request.
+   *
+   * @return amortization table
+   */
+  @Bean
+  public AmortizationTable amortizationTable() {
+    Path tablePath = getTablePath();
+    if (tablePath == null) {
+      LOGGER.info("Amortization table is not configured");
+      return AmortizationTable.EMPTY;
+    }
+    if (!Files.exists(tablePath)) {
+      LOGGER.warn("Amortization table {} does not exist yet", tablePath);
+      return AmortizationTable.EMPTY;
+    }
+    try {
+      return AmortizationTable.load(tablePath);
+    } catch (IOException e) {
+      LOGGER.error("Amortization table {} cannot be loaded", tablePath, e);
+      return AmortizationTable.EMPTY;
+    }
+  }
+
+  public Path getTablePath() {
+    return path == null || path.trim().isEmpty() ? null : Paths.get(path.trim());
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public List<BigDecimal> getRates() {
+    return rates;
+  }
+
+  public void setRates(List<BigDecimal> rates) {
+    this.rates = rates;
+  }
+
+  public List<Integer> getDurations() {
+    return durations;
+  }
+
+  public void setDurations(List<Integer> durations) {
+    this.durations = durations;
+  }
+}
@@ -1,5 +1,6 @@
 package com.lendico.plangenerator.configuration;
 
+import com.lendico.plangenerator.exception.CriteriaValidationException;
 import com.lendico.plangenerator.exception.DataException;
 import java.time.LocalDateTime;
 import java.util.Date;
@@ -51,4 +52,15 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
 
     return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
   }
+
+  // error handle for criteria rejected by the service, same format as @Valid errors.
+  @ExceptionHandler(CriteriaValidationException.class)
+  public ResponseEntity<Object> handleCriteriaValidationException(
+      CriteriaValidationException ex, WebRequest request) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("timestamp", new Date());
+    body.put("status", HttpStatus.BAD_REQUEST.value());
+    body.put("errors", ex.getErrors());
+    return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+  }
 }
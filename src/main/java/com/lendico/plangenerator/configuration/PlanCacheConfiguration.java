@@ -0,0 +1,129 @@
+package com.lendico.plangenerator.configuration;
+
+import com.lendico.plangenerator.cache.NearPlanCache;
+import com.lendico.plangenerator.cache.PlanCache;
+import com.lendico.plangenerator.cache.PlanCacheClient;
+import com.lendico.plangenerator.cache.RemotePlanCache;
+import com.lendico.plangenerator.cache.TieredPlanCache;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.CachingRepaymentPlanService;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import java.time.Duration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Two tier plan cache in front of the repayment service. Near cache only unless a remote host is
+ * configured.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "plan.cache")
+@ConditionalOnProperty(prefix = "plan.cache", name = "enabled", havingValue = "true")
+public class PlanCacheConfiguration {
+  public static final Logger LOGGER = LogManager.getLogger(PlanCacheConfiguration.class);
+
+  private int nearMaxEntries;
+  private Duration nearTtl;
+  private String remoteHost;
+  private int remotePort;
+  private Duration remoteTimeout;
+  private int remotePoolSize;
+  private int remoteFailureThreshold;
+  private Duration remoteOpenDuration;
+
+  @Bean
+  public PlanCache planCache() {
+    PlanCache nearCache = new NearPlanCache(nearMaxEntries, nearTtl.toMillis());
+    if (remoteHost == null || remoteHost.trim().isEmpty()) {
+      LOGGER.info("Using near plan cache only");
+      return nearCache;
+    }
+    LOGGER.info("Using near plan cache backed by {}:{}", remoteHost, remotePort);
+    return new TieredPlanCache(
+        nearCache,
+        new RemotePlanCache(
+            planCacheClient(), remoteFailureThreshold, remoteOpenDuration.toMillis()));
+  }
+
+  @Bean
+  public PlanCacheClient planCacheClient() {
+    return new PlanCacheClient(
+        remoteHost, remotePort, (int) remoteTimeout.toMillis(), remotePoolSize);
+  }
+
+  @Bean
+  @Primary
+  public RepaymentPlanService cachingRepaymentPlanService(
+      RepaymentPlanServiceImpl repaymentPlanService, PlanCache planCache) {
+    return new CachingRepaymentPlanService(repaymentPlanService, planCache);
+  }
+
+  public int getNearMaxEntries() {
+    return nearMaxEntries;
+  }
+
+  public void setNearMaxEntries(int nearMaxEntries) {
+    this.nearMaxEntries = nearMaxEntries;
+  }
+
+  public Duration getNearTtl() {
+    return nearTtl;
+  }
+
+  public void setNearTtl(Duration nearTtl) {
+    this.nearTtl = nearTtl;
+  }
+
+  public String getRemoteHost() {
+    return remoteHost;
+  }
+
+  public void setRemoteHost(String remoteHost) {
+    this.remoteHost = remoteHost;
+  }
+
+  public int getRemotePort() {
+    return remotePort;
+  }
+
+  public void setRemotePort(int remotePort) {
+    this.remotePort = remotePort;
+  }
+
+  public Duration getRemoteTimeout() {
+    return remoteTimeout;
+  }
+
+  public void setRemoteTimeout(Duration remoteTimeout) {
+    this.remoteTimeout = remoteTimeout;
+  }
+
+  public int getRemotePoolSize() {
+    return remotePoolSize;
+  }
+
+  public void setRemotePoolSize(int remotePoolSize) {
+    this.remotePoolSize = remotePoolSize;
+  }
+
+  public int getRemoteFailureThreshold() {
+    return remoteFailureThreshold;
+  }
+
+  public void setRemoteFailureThreshold(int remoteFailureThreshold) {
+    this.remoteFailureThreshold = remoteFailureThreshold;
+  }
+
+  public Duration getRemoteOpenDuration() {
+    return remoteOpenDuration;
+  }
+
+  public void setRemoteOpenDuration(Duration remoteOpenDuration) {
+    this.remoteOpenDuration = remoteOpenDuration;
+  }
+}
@@ -0,0 +1,37 @@
+package com.lendico.plangenerator.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Maximum cost of plans accepted for generation. */
+@Configuration
+@ConfigurationProperties(prefix = "plan.cost")
+public class PlanCostConfiguration {
+  private int maxDuration;
+  private int maxDigits;
+  private long maxPortfolioMonths;
+
+  public int getMaxDuration() {
+    return maxDuration;
+  }
+
+  public void setMaxDuration(int maxDuration) {
+    this.maxDuration = maxDuration;
+  }
+
+  public int getMaxDigits() {
+    return maxDigits;
+  }
+
+  public void setMaxDigits(int maxDigits) {
+    this.maxDigits = maxDigits;
+  }
+
+  public long getMaxPortfolioMonths() {
+    return maxPortfolioMonths;
+  }
+
+  public void setMaxPortfolioMonths(long maxPortfolioMonths) {
+    this.maxPortfolioMonths = maxPortfolioMonths;
+  }
+}
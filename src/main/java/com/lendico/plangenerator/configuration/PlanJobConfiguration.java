@@ -0,0 +1,74 @@
+package com.lendico.plangenerator.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Worker pool, limits and spool location of bulk plan jobs. */
+@Configuration
+@ConfigurationProperties(prefix = "plan.jobs")
+public class PlanJobConfiguration {
+  private int workerThreads;
+  private int maxQueuedJobs;
+  private int maxJobsPerPrincipal;
+  private int maxPortfolioSize;
+  private String spoolDirectory;
+  private Duration retention;
+  private Duration cleanupInterval;
+
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public void setWorkerThreads(int workerThreads) {
+    this.workerThreads = workerThreads;
+  }
+
+  public int getMaxQueuedJobs() {
+    return maxQueuedJobs;
+  }
+
+  public void setMaxQueuedJobs(int maxQueuedJobs) {
+    this.maxQueuedJobs = maxQueuedJobs;
+  }
+
+  public int getMaxJobsPerPrincipal() {
+    return maxJobsPerPrincipal;
+  }
+
+  public void setMaxJobsPerPrincipal(int maxJobsPerPrincipal) {
+    this.maxJobsPerPrincipal = maxJobsPerPrincipal;
+  }
+
+  public int getMaxPortfolioSize() {
+    return maxPortfolioSize;
+  }
+
+  public void setMaxPortfolioSize(int maxPortfolioSize) {
+    this.maxPortfolioSize = maxPortfolioSize;
+  }
+
+  public String getSpoolDirectory() {
+    return spoolDirectory;
+  }
+
+  public void setSpoolDirectory(String spoolDirectory) {
+    this.spoolDirectory = spoolDirectory;
+  }
+
+  public Duration getRetention() {
+    return retention;
+  }
+
+  public void setRetention(Duration retention) {
+    this.retention = retention;
+  }
+
+  public Duration getCleanupInterval() {
+    return cleanupInterval;
+  }
+
+  public void setCleanupInterval(Duration cleanupInterval) {
+    this.cleanupInterval = cleanupInterval;
+  }
+}
@@ -0,0 +1,46 @@
+package com.lendico.plangenerator.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Location, size and compaction settings of the persistent plan store. */
+@Configuration
+@ConfigurationProperties(prefix = "plan.store")
+public class PlanStoreConfiguration {
+  private String path;
+  private double compactionRatio;
+  private long compactionMinBytes;
+  private long maxBytes;
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public double getCompactionRatio() {
+    return compactionRatio;
+  }
+
+  public void setCompactionRatio(double compactionRatio) {
+    this.compactionRatio = compactionRatio;
+  }
+
+  public long getCompactionMinBytes() {
+    return compactionMinBytes;
+  }
+
+  public void setCompactionMinBytes(long compactionMinBytes) {
+    this.compactionMinBytes = compactionMinBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+}
@@ -1,6 +1,8 @@
 package com.lendico.plangenerator.configuration;
 
+import com.lendico.plangenerator.timing.AuthenticationTimingFilter;
 import java.io.IOException;
+import java.util.Collections;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
@@ -10,7 +12,12 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 
 /** Security configuration to support Basic Authentication for api request. */
@@ -20,10 +27,18 @@ import org.springframework.security.web.authentication.www.BasicAuthenticationEn
 class RestSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
   // creating dummy users for application purpose. Can be connect to db to fetch user details.
+  // NoOpPasswordEncoder is deprecated as insecure, dummy passwords are plain text anyway.
+  @SuppressWarnings("deprecation")
   @Override
   protected void configure(AuthenticationManagerBuilder authManagerBuilder) throws Exception {
+    // The default encoder upgrades {noop} passwords to bcrypt on the first login, after which
+    // every basic auth request pays for a bcrypt check.
+    PasswordEncoder passwordEncoder =
+        new DelegatingPasswordEncoder(
+            "noop", Collections.singletonMap("noop", NoOpPasswordEncoder.getInstance()));
     authManagerBuilder
         .inMemoryAuthentication()
+        .passwordEncoder(passwordEncoder)
         .withUser("user")
         .password("{noop}password")
         .authorities("USER")
@@ -42,6 +57,8 @@ class RestSecurityConfiguration extends WebSecurityConfigurerAdapter {
   @Override
   protected void configure(HttpSecurity http) throws Exception {
     http.csrf().disable();
+    // Every request sends its credentials, a session per request only costs a session id.
+    http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
     http.authorizeRequests()
         .antMatchers(
             "/",
@@ -49,10 +66,14 @@ class RestSecurityConfiguration extends WebSecurityConfigurerAdapter {
             "/v2/api-docs",
             "/swagger-resources/**",
             "/swagger-ui.html",
-            "/webjars/**")
+            "/webjars/**",
+            "/actuator/health",
+            "/actuator/health/**")
         .permitAll()
-        .antMatchers("/plans**")
+        .antMatchers("/plans**", "/plans/**", "/admin/**", "/actuator/**")
         .access("hasAnyAuthority('ADMIN')");
+    // Authentication and authorization time of plan requests ends here.
+    http.addFilterAfter(new AuthenticationTimingFilter(), FilterSecurityInterceptor.class);
     http.httpBasic()
         .authenticationEntryPoint(
             new BasicAuthenticationEntryPoint() { // << implementing this interface
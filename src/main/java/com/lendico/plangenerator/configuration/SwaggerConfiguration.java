@@ -6,6 +6,7 @@ import static springfox.documentation.builders.PathSelectors.regex;
 import com.google.common.base.Predicates;
 import java.util.ArrayList;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.ApiInfoBuilder;
@@ -19,9 +20,13 @@ import springfox.documentation.spi.service.contexts.SecurityContext;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
-/** Swagger integration to support Open API specification 2. */
+/**
+ * Swagger integration to support Open API specification 2. Disabled with
+ * plan.swagger.enabled=false, which skips the Springfox scan of all request mappings at startup.
+ */
 @EnableSwagger2
 @Configuration
+@ConditionalOnProperty(prefix = "plan.swagger", name = "enabled", matchIfMissing = true)
 public class SwaggerConfiguration {
 
   @Bean
@@ -0,0 +1,63 @@
+package com.lendico.plangenerator.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import com.lendico.plangenerator.warmup.PlanWarmUp;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Startup warm-up of the calculation engine, readiness is only reported once it has finished. */
+@Configuration
+@ConfigurationProperties(prefix = "plan.warmup")
+@ConditionalOnProperty(prefix = "plan.warmup", name = "enabled", havingValue = "true")
+public class WarmUpConfiguration {
+  private int batchSize;
+  private double tolerance;
+  private int stableBatches;
+  private Duration maxDuration;
+
+  // The engine itself is warmed up, a cache in front of it would serve the repeated mix.
+  @Bean
+  public PlanWarmUp planWarmUp(
+      RepaymentPlanServiceImpl repaymentPlanService,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher) {
+    return new PlanWarmUp(repaymentPlanService, objectMapper, eventPublisher, this);
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  public int getStableBatches() {
+    return stableBatches;
+  }
+
+  public void setStableBatches(int stableBatches) {
+    this.stableBatches = stableBatches;
+  }
+
+  public Duration getMaxDuration() {
+    return maxDuration;
+  }
+
+  public void setMaxDuration(Duration maxDuration) {
+    this.maxDuration = maxDuration;
+  }
+}
@@ -0,0 +1,59 @@
+package com.lendico.plangenerator.controller;
+
+import com.lendico.plangenerator.configuration.AmortizationTableConfiguration;
+import com.lendico.plangenerator.exception.DataException;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import com.lendico.plangenerator.utility.AmortizationTable;
+import com.lendico.plangenerator.utility.AmortizationTableGenerator;
+import io.swagger.annotations.ApiOperation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/amortization-table")
+public class AmortizationTableController {
+
+  public static final Logger LOGGER = LogManager.getLogger(AmortizationTableController.class);
+
+  @Autowired AmortizationTableConfiguration amortizationTableConfiguration;
+
+  @Autowired RepaymentPlanServiceImpl repaymentPlanService;
+
+  @ApiOperation(
+      nickname = "generateAmortizationTable",
+      value = "Regenerate amortization table of the product catalogue and load it")
+  @PostMapping(produces = "application/json")
+  public ResponseEntity<Map<String, Object>> generate(Principal principal) {
+    Path tablePath = amortizationTableConfiguration.getTablePath();
+    if (tablePath == null) {
+      throw new DataException("Amortization table path is not configured");
+    }
+    LOGGER.info("User {} requested amortization table generation", principal.getName());
+    try {
+      int entries =
+          AmortizationTableGenerator.generate(
+              tablePath,
+              amortizationTableConfiguration.getRates(),
+              amortizationTableConfiguration.getDurations());
+      repaymentPlanService.setAmortizationTable(AmortizationTable.load(tablePath));
+      Map<String, Object> body = new LinkedHashMap<>();
+      body.put("path", tablePath.toString());
+      body.put("entries", entries);
+      return new ResponseEntity<>(body, HttpStatus.OK);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Amortization table cannot be generated", e);
+    }
+  }
+}
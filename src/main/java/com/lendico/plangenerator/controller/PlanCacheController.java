@@ -0,0 +1,51 @@
+package com.lendico.plangenerator.controller;
+
+import com.lendico.plangenerator.cache.PlanCache;
+import io.swagger.annotations.ApiOperation;
+import java.security.Principal;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Invalidates plans in the shared cache tier and in the near cache of the node receiving the call.
+ * Near caches of other nodes keep serving the plans until they expire after plan.cache.near-ttl.
+ */
+@RestController
+@RequestMapping("/admin/plan-cache")
+@ConditionalOnProperty(prefix = "plan.cache", name = "enabled", havingValue = "true")
+public class PlanCacheController {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanCacheController.class);
+
+  @Autowired PlanCache planCache;
+
+  @ApiOperation(
+      nickname = "invalidatePlan",
+      value =
+          "Invalidate cached plan by criteria hash, i.e. the plan id, in the shared cache and the"
+              + " near cache of this node")
+  @DeleteMapping(value = "/{hash}")
+  public ResponseEntity<Void> invalidate(@PathVariable String hash, Principal principal) {
+    LOGGER.info("User {} invalidated cached plan {}", principal.getName(), hash);
+    planCache.invalidate(hash);
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  @ApiOperation(
+      nickname = "clearPlanCache",
+      value = "Invalidate all plans in the shared cache and the near cache of this node")
+  @DeleteMapping
+  public ResponseEntity<Void> clear(Principal principal) {
+    LOGGER.info("User {} cleared plan cache", principal.getName());
+    planCache.clear();
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+}
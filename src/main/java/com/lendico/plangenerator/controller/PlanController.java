@@ -1,18 +1,30 @@
 package com.lendico.plangenerator.controller;
 
 import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.PlanCriteriaValidator;
 import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.exception.CriteriaValidationException;
+import com.lendico.plangenerator.exception.PlanNotFoundException;
+import com.lendico.plangenerator.service.PlanCostPolicy;
+import com.lendico.plangenerator.service.PlanStore;
 import com.lendico.plangenerator.service.RepaymentPlanService;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
 import javax.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -26,6 +38,19 @@ public class PlanController {
 
   @Autowired RepaymentPlanService repaymentPlanService;
 
+  // Absent with plan.store.enabled=false.
+  @Autowired Optional<PlanStore> planStore;
+
+  @Autowired PlanCostPolicy planCostPolicy;
+
+  // Validate plan criteria with precompiled checks instead of Hibernate Validator.
+  @InitBinder
+  public void initBinder(WebDataBinder binder) {
+    if (binder.getTarget() instanceof PlanCriteria) {
+      binder.setValidator(PlanCriteriaValidator.INSTANCE);
+    }
+  }
+
   @ApiOperation(
       nickname = "getPlans",
       value = "Get repayment schedule",
@@ -36,13 +61,16 @@ public class PlanController {
         @ApiResponse(
             code = 400,
             message =
-                "The request body is either malformed or contains unsupported parameter values."),
+                "The request body is either malformed, contains unsupported parameter values or "
+                    + "exceeds the cost limits."),
         @ApiResponse(code = 403, message = "Not authorized to call this service."),
         @ApiResponse(
             code = 500,
             message = "An unexpected error occurred while processing the request."),
         @ApiResponse(code = 502, message = "Application returned an unexpected error."),
-        @ApiResponse(code = 504, message = "Application did not respond in a timely fashion.")
+        @ApiResponse(
+            code = 504,
+            message = "Plan was not generated before the deadline, see X-Request-Timeout.")
       })
   @PostMapping(produces = "application/json", consumes = "application/json")
   public ResponseEntity<RepaymentPlan> getPlans(
@@ -52,6 +80,45 @@ public class PlanController {
         "User {} requested repayment plan for the duration of {}",
         principal.getName(),
         planCriteria.getDuration());
-    return new ResponseEntity<>(repaymentPlanService.getRepaymentPlan(planCriteria), HttpStatus.OK);
+    List<String> violations = planCostPolicy.check(planCriteria);
+    if (!violations.isEmpty()) {
+      throw new CriteriaValidationException(violations);
+    }
+    RepaymentPlan repaymentPlan = repaymentPlanService.getRepaymentPlan(planCriteria);
+    // Cached plans already carry their id.
+    if (repaymentPlan.getId() == null) {
+      repaymentPlan.setId(repaymentPlanService.getPlanId(planCriteria));
+    }
+    planStore.ifPresent(store -> store.save(repaymentPlan));
+    return new ResponseEntity<>(repaymentPlan, HttpStatus.OK);
+  }
+
+  @ApiOperation(
+      nickname = "getPlan",
+      value = "Get previously generated repayment schedule",
+      response = RepaymentPlan.class)
+  @ApiResponses(
+      value = {
+        @ApiResponse(code = 200, message = "Repayment plan found"),
+        @ApiResponse(code = 403, message = "Not authorized to call this service."),
+        @ApiResponse(code = 404, message = "No plan has been generated with this id.")
+      })
+  @GetMapping(value = "/{id}", produces = "application/json")
+  public ResponseEntity<byte[]> getPlan(@PathVariable String id, Principal principal) {
+    LOGGER.info("User {} requested repayment plan {}", principal.getName(), id);
+    // Stored plan is already serialized json, bytes are written to the response as they are.
+    byte[] repaymentPlan =
+        planStore.flatMap(store -> store.find(id)).orElseThrow(() -> new PlanNotFoundException(id));
+    return new ResponseEntity<>(repaymentPlan, HttpStatus.OK);
+  }
+
+  @ApiOperation(nickname = "deletePlan", value = "Delete previously generated repayment schedule")
+  @DeleteMapping(value = "/{id}")
+  public ResponseEntity<Void> deletePlan(@PathVariable String id, Principal principal) {
+    LOGGER.info("User {} deleted repayment plan {}", principal.getName(), id);
+    if (!planStore.map(store -> store.delete(id)).orElse(false)) {
+      throw new PlanNotFoundException(id);
+    }
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 }
@@ -0,0 +1,91 @@
+package com.lendico.plangenerator.controller;
+
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.PlanJob;
+import com.lendico.plangenerator.service.PlanJobService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/plans/jobs")
+public class PlanJobController {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanJobController.class);
+
+  @Autowired PlanJobService planJobService;
+
+  @ApiOperation(
+      nickname = "submitPlanJob",
+      value = "Submit portfolio of plan criteria for asynchronous generation",
+      response = PlanJob.class)
+  @ApiResponses(
+      value = {
+        @ApiResponse(code = 202, message = "Job queued"),
+        @ApiResponse(
+            code = 400,
+            message = "The portfolio is either malformed or contains invalid plan criteria."),
+        @ApiResponse(code = 403, message = "Not authorized to call this service."),
+        @ApiResponse(code = 429, message = "Too many jobs queued or running.")
+      })
+  @PostMapping(produces = "application/json", consumes = "application/json")
+  public ResponseEntity<PlanJob> submit(
+      @RequestBody List<PlanCriteria> portfolio, Principal principal) {
+    PlanJob planJob = planJobService.submit(portfolio, principal.getName());
+    return ResponseEntity.accepted()
+        .location(URI.create("/plans/jobs/" + planJob.getId()))
+        .body(planJob);
+  }
+
+  @ApiOperation(
+      nickname = "getPlanJob",
+      value = "Get job status and progress",
+      response = PlanJob.class)
+  @GetMapping(value = "/{id}", produces = "application/json")
+  public ResponseEntity<PlanJob> getJob(@PathVariable String id, Principal principal) {
+    return new ResponseEntity<>(planJobService.getJob(id, principal.getName()), HttpStatus.OK);
+  }
+
+  @ApiOperation(
+      nickname = "getPlanJobResult",
+      value = "Download results of a completed job as json array of {index, plan or error}")
+  @ApiResponses(
+      value = {
+        @ApiResponse(code = 200, message = "Job results"),
+        @ApiResponse(code = 404, message = "No job with this id."),
+        @ApiResponse(code = 409, message = "Job has not completed.")
+      })
+  @GetMapping(value = "/{id}/result", produces = "application/json")
+  public ResponseEntity<Resource> getResult(@PathVariable String id, Principal principal) {
+    LOGGER.info("User {} downloads results of job {}", principal.getName(), id);
+    // Spool file is streamed to the client, results are never loaded into memory.
+    return new ResponseEntity<>(
+        new FileSystemResource(planJobService.getResult(id, principal.getName())), HttpStatus.OK);
+  }
+
+  @ApiOperation(
+      nickname = "cancelPlanJob",
+      value = "Cancel queued or running job",
+      response = PlanJob.class)
+  @DeleteMapping(value = "/{id}", produces = "application/json")
+  public ResponseEntity<PlanJob> cancel(@PathVariable String id, Principal principal) {
+    return new ResponseEntity<>(planJobService.cancel(id, principal.getName()), HttpStatus.OK);
+  }
+}
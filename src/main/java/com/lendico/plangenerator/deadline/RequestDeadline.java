@@ -0,0 +1,57 @@
+package com.lendico.plangenerator.deadline;
+
+import com.lendico.plangenerator.exception.DeadlineExceededException;
+
+/**
+ * Deadline of the request handled by the current thread. Long running calculations call {@link
+ * #check()} to abort once the client has given up waiting, without a deadline it is a no-op.
+ */
+public final class RequestDeadline {
+
+  private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+  private final long timeoutMillis;
+  private final long expiresAt;
+  private volatile boolean exceeded;
+
+  private RequestDeadline(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+    this.expiresAt = System.nanoTime() + timeoutMillis * 1_000_000;
+  }
+
+  /**
+   * Start deadline of the request handled by the current thread.
+   *
+   * @param timeoutMillis time left for the request
+   * @return deadline of the request
+   */
+  public static RequestDeadline start(long timeoutMillis) {
+    RequestDeadline deadline = new RequestDeadline(timeoutMillis);
+    CURRENT.set(deadline);
+    return deadline;
+  }
+
+  /**
+   * Abort when the deadline of the current request has passed.
+   *
+   * @throws DeadlineExceededException when the deadline has passed
+   */
+  public static void check() {
+    RequestDeadline deadline = CURRENT.get();
+    if (deadline != null && System.nanoTime() - deadline.expiresAt > 0) {
+      deadline.exceeded = true;
+      throw new DeadlineExceededException(
+          "Plan could not be generated within " + deadline.timeoutMillis + " ms");
+    }
+  }
+
+  /** Remove deadline from the current thread. */
+  public void finish() {
+    CURRENT.remove();
+  }
+
+  /** @return true when the request has been aborted by {@link #check()} */
+  public boolean isExceeded() {
+    return exceeded;
+  }
+}
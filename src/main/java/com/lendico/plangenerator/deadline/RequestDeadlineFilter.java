@@ -0,0 +1,88 @@
+package com.lendico.plangenerator.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Starts the deadline of plan generation requests, POST /plans, when they arrive. Clients pass the
+ * time they are going to wait in milliseconds with {@value #TIMEOUT_HEADER}, capped at
+ * plan.deadline.max-timeout; requests without it get plan.deadline.default-timeout. Aborted
+ * requests are counted in {@value #METRIC}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+  public static final Logger LOGGER = LogManager.getLogger(RequestDeadlineFilter.class);
+  public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+  public static final String METRIC = "plan.deadline.exceeded";
+
+  private final long defaultTimeoutMillis;
+  private final long maxTimeoutMillis;
+  private final Counter exceeded;
+
+  public RequestDeadlineFilter(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${plan.deadline.default-timeout:2s}") Duration defaultTimeout,
+      @Value("${plan.deadline.max-timeout:10s}") Duration maxTimeout) {
+    this.defaultTimeoutMillis = defaultTimeout.toMillis();
+    this.maxTimeoutMillis = maxTimeout.toMillis();
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    this.exceeded =
+        registry == null
+            ? null
+            : Counter.builder(METRIC)
+                .description("Plan requests aborted because their deadline passed")
+                .register(registry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    // Bulk jobs run on worker threads after the response, only plan generation gets a deadline.
+    return !HttpMethod.POST.matches(request.getMethod())
+        || !request.getRequestURI().equals(request.getContextPath() + "/plans");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestDeadline deadline = RequestDeadline.start(timeoutMillis(request));
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      deadline.finish();
+      if (deadline.isExceeded() && exceeded != null) {
+        exceeded.increment();
+      }
+    }
+  }
+
+  private long timeoutMillis(HttpServletRequest request) {
+    String timeout = request.getHeader(TIMEOUT_HEADER);
+    if (timeout == null) {
+      return defaultTimeoutMillis;
+    }
+    try {
+      return Math.min(Math.max(Long.parseLong(timeout.trim()), 0), maxTimeoutMillis);
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Ignoring invalid {} header {}", TIMEOUT_HEADER, timeout);
+      return defaultTimeoutMillis;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.lendico.plangenerator.domain;
+
+public enum JobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED,
+  CANCELLED;
+
+  public boolean isFinished() {
+    return this == COMPLETED || this == FAILED || this == CANCELLED;
+  }
+}
@@ -1,6 +1,8 @@
 package com.lendico.plangenerator.domain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.lendico.plangenerator.utility.PrecisionProfile;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.math.BigDecimal;
@@ -16,9 +18,25 @@ import org.hibernate.validator.constraints.Range;
 @Getter
 @Builder
 @ApiModel(value = "Plan criteria")
+@JsonDeserialize(using = PlanCriteriaDeserializer.class)
 public class PlanCriteria {
-  @NotNull(message = "Duration is mandatory. e.g. duration:12")
-  @Range(min = 1, message = "Duration cannot be lesser than 1")
+  // Validation messages, shared with PlanCriteriaValidator.
+  public static final String DURATION_MANDATORY = "Duration is mandatory. e.g. duration:12";
+  public static final String DURATION_MIN = "Duration cannot be lesser than 1";
+  public static final String NOMINAL_RATE_MANDATORY =
+      "Nominal interest rate is required e.g. nominalRate:5";
+  public static final String NOMINAL_RATE_MIN =
+      "Nominal Rate cannot be lesser than 0 or equal to zero";
+  public static final String LOAN_AMOUNT_MANDATORY =
+      "Please provide loan principal amount e.g. loanAmount:5000";
+  public static final String LOAN_AMOUNT_MIN =
+      "Loan Amount cannot be lesser than 0 or equal to zero";
+  public static final String START_DATE_MANDATORY =
+      "Please provide start date of the loan e.g. startDate:2020:06:01T10:00:00Z";
+  public static final String START_DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+  @NotNull(message = DURATION_MANDATORY)
+  @Range(min = 1, message = DURATION_MIN)
   @ApiModelProperty(
       name = "duration",
       value = "Duration of loan",
@@ -27,8 +45,8 @@ public class PlanCriteria {
       dataType = "int")
   Integer duration;
 
-  @NotNull(message = "Nominal interest rate is required e.g. nominalRate:5")
-  @DecimalMin(value = "0.0", message = "Nominal Rate cannot be lesser than 0 or equal to zero")
+  @NotNull(message = NOMINAL_RATE_MANDATORY)
+  @DecimalMin(value = "0.0", message = NOMINAL_RATE_MIN)
   @ApiModelProperty(
       name = "nominalRate",
       value = "Nominal interest rate per year",
@@ -37,8 +55,8 @@ public class PlanCriteria {
       dataType = "int")
   BigDecimal nominalRate;
 
-  @NotNull(message = "Please provide loan principal amount e.g. loanAmount:5000")
-  @DecimalMin(value = "0.0", message = "Loan Amount cannot be lesser than 0 or equal to zero")
+  @NotNull(message = LOAN_AMOUNT_MANDATORY)
+  @DecimalMin(value = "0.0", message = LOAN_AMOUNT_MIN)
   @ApiModelProperty(
       name = "loanAmount",
       value = "Borrowed loan amount",
@@ -47,12 +65,18 @@ public class PlanCriteria {
       dataType = "int")
   BigDecimal loanAmount;
 
-  @NotNull(message = "Please provide start date of the loan e.g. startDate:2020:06:01T10:00:00Z")
-  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+  @NotNull(message = START_DATE_MANDATORY)
+  @JsonFormat(pattern = START_DATE_PATTERN)
   @ApiModelProperty(
       name = "statDate",
       value = "Loan start date",
       required = true,
       dataType = "date")
   Date statDate;
+
+  @ApiModelProperty(
+      name = "precision",
+      value = "Precision profile of the calculation, configured default if not provided",
+      example = "EXACT_18")
+  PrecisionProfile precision;
 }
@@ -0,0 +1,130 @@
+package com.lendico.plangenerator.domain;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.lendico.plangenerator.utility.PrecisionProfile;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Date;
+
+/**
+ * Streaming deserializer of {@link PlanCriteria}. Reads the fields straight from the parser and
+ * parses start dates in the canonical shape of {@link PlanCriteria#START_DATE_PATTERN} with a
+ * shared thread safe formatter instead of reflective binding and a per request date format. Values
+ * in unusual shapes (e.g. numbers as strings, single digit date fields or general time zones) are
+ * handed over to the parsing Jackson uses for {@code @JsonFormat}, so accepted input and errors
+ * stay the same.
+ */
+public class PlanCriteriaDeserializer extends StdDeserializer<PlanCriteria> {
+
+  // Strict, so out of range fields are left to the lenient SimpleDateFormat, which rolls them over.
+  private static final DateTimeFormatter START_DATE_FORMAT =
+      DateTimeFormatter.ofPattern(PlanCriteria.START_DATE_PATTERN.replace('y', 'u'))
+          .withResolverStyle(ResolverStyle.STRICT);
+
+  public PlanCriteriaDeserializer() {
+    super(PlanCriteria.class);
+  }
+
+  @Override
+  public PlanCriteria deserialize(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+      return (PlanCriteria) context.handleUnexpectedToken(PlanCriteria.class, parser);
+    }
+    PlanCriteria.PlanCriteriaBuilder builder = PlanCriteria.builder();
+    for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+      parser.nextToken();
+      switch (field) {
+        case "duration":
+          builder.duration(readInteger(parser, context));
+          break;
+        case "nominalRate":
+          builder.nominalRate(readDecimal(parser, context));
+          break;
+        case "loanAmount":
+          builder.loanAmount(readDecimal(parser, context));
+          break;
+        case "statDate":
+          builder.statDate(readDate(parser, context));
+          break;
+        case "precision":
+          // Explicit null selects the configured default, like a missing field.
+          if (parser.getCurrentToken() != JsonToken.VALUE_NULL) {
+            builder.precision(context.readValue(parser, PrecisionProfile.class));
+          }
+          break;
+        default:
+          context.handleUnknownProperty(parser, this, PlanCriteria.class, field);
+      }
+    }
+    return builder.build();
+  }
+
+  private static Integer readInteger(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    switch (parser.getCurrentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_NUMBER_INT:
+        return parser.getIntValue();
+      default:
+        return context.readValue(parser, Integer.class);
+    }
+  }
+
+  private static BigDecimal readDecimal(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    switch (parser.getCurrentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDecimalValue();
+      default:
+        return context.readValue(parser, BigDecimal.class);
+    }
+  }
+
+  private static Date readDate(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    switch (parser.getCurrentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING:
+        String text = parser.getText().trim();
+        if (text.isEmpty()) {
+          return null;
+        }
+        try {
+          return Date.from(OffsetDateTime.parse(text, START_DATE_FORMAT).toInstant());
+        } catch (DateTimeParseException e) {
+          return parseLenient(text, context);
+        }
+      default:
+        return context.readValue(parser, Date.class);
+    }
+  }
+
+  // Same lenient SimpleDateFormat as Jackson creates for @JsonFormat(pattern), which also accepts
+  // e.g. single digit fields, fewer fraction digits, GMT+hh:mm zones and trailing text.
+  private static Date parseLenient(String text, DeserializationContext context) throws IOException {
+    SimpleDateFormat format =
+        new SimpleDateFormat(PlanCriteria.START_DATE_PATTERN, context.getLocale());
+    format.setTimeZone(context.getTimeZone());
+    try {
+      return format.parse(text);
+    } catch (ParseException e) {
+      throw context.weirdStringException(
+          text, Date.class, "expected format \"" + PlanCriteria.START_DATE_PATTERN + "\"");
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.lendico.plangenerator.domain;
+
+import java.math.BigDecimal;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * Hand written equivalent of the bean validation constraints declared on {@link PlanCriteria}. It
+ * reports the same field errors and messages without the reflective constraint metadata lookup of
+ * Hibernate Validator. Constraints on PlanCriteria and checks here must be changed together.
+ */
+public class PlanCriteriaValidator implements Validator {
+
+  public static final PlanCriteriaValidator INSTANCE = new PlanCriteriaValidator();
+
+  private static final int MIN_DURATION = 1;
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return PlanCriteria.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public void validate(Object target, Errors errors) {
+    PlanCriteria criteria = (PlanCriteria) target;
+    // @NotNull and @Range(min = 1)
+    if (criteria.getDuration() == null) {
+      errors.rejectValue("duration", "NotNull", PlanCriteria.DURATION_MANDATORY);
+    } else if (criteria.getDuration() < MIN_DURATION) {
+      errors.rejectValue("duration", "Range", PlanCriteria.DURATION_MIN);
+    }
+    // @NotNull and @DecimalMin("0.0")
+    validateDecimal(
+        errors,
+        "nominalRate",
+        criteria.getNominalRate(),
+        PlanCriteria.NOMINAL_RATE_MANDATORY,
+        PlanCriteria.NOMINAL_RATE_MIN);
+    validateDecimal(
+        errors,
+        "loanAmount",
+        criteria.getLoanAmount(),
+        PlanCriteria.LOAN_AMOUNT_MANDATORY,
+        PlanCriteria.LOAN_AMOUNT_MIN);
+    // @NotNull
+    if (criteria.getStatDate() == null) {
+      errors.rejectValue("statDate", "NotNull", PlanCriteria.START_DATE_MANDATORY);
+    }
+  }
+
+  private static void validateDecimal(
+      Errors errors, String field, BigDecimal value, String mandatoryMessage, String minMessage) {
+    if (value == null) {
+      errors.rejectValue(field, "NotNull", mandatoryMessage);
+    } else if (value.signum() < 0) {
+      errors.rejectValue(field, "DecimalMin", minMessage);
+    }
+  }
+}
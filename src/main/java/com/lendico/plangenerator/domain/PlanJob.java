@@ -0,0 +1,43 @@
+package com.lendico.plangenerator.domain;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(value = "Bulk plan job")
+public class PlanJob {
+  @ApiModelProperty(value = "Job id", example = "2b7c3c0e-5f0e-4f5b-8d4c-5b0b8f5e7a41")
+  private String id;
+
+  @ApiModelProperty(value = "Job status", example = "RUNNING")
+  private JobStatus status;
+
+  @ApiModelProperty(value = "Number of criteria in the portfolio", example = "1000")
+  private Integer total;
+
+  @ApiModelProperty(value = "Number of criteria processed so far", example = "250")
+  private Integer completed;
+
+  @ApiModelProperty(value = "Number of criteria that could not be calculated", example = "0")
+  private Integer failed;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+  @ApiModelProperty(value = "Submission time", example = "2020-06-01T10:00:00Z")
+  private Date submittedAt;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+  @ApiModelProperty(value = "Completion time", example = "2020-06-01T10:01:00Z")
+  private Date finishedAt;
+
+  @ApiModelProperty(value = "Failure reason", example = "Spool file cannot be written")
+  private String message;
+}
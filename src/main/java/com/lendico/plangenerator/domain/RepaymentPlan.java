@@ -14,6 +14,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @ApiModel(value = "Repayment Plan")
 public class RepaymentPlan {
+  @ApiModelProperty(
+      name = "id",
+      value = "Plan id, the plan can be fetched again with GET /plans/{id}",
+      example = "9f86d081884c7d659a2feaa0c55ad015")
+  private String id;
+
   @ApiModelProperty(name = "borrowerPayments", value = "List of payments")
   private List<Payment> borrowerPayments;
 
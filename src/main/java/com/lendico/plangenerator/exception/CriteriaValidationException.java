@@ -0,0 +1,17 @@
+package com.lendico.plangenerator.exception;
+
+import java.util.List;
+
+/** Request criteria rejected before processing, reported like bean validation errors. */
+public class CriteriaValidationException extends RuntimeException {
+  private final List<String> errors;
+
+  public CriteriaValidationException(final List<String> errors) {
+    super(String.join(", ", errors));
+    this.errors = errors;
+  }
+
+  public List<String> getErrors() {
+    return errors;
+  }
+}
@@ -0,0 +1,11 @@
+package com.lendico.plangenerator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+  public DeadlineExceededException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,11 @@
+package com.lendico.plangenerator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class JobLimitException extends RuntimeException {
+  public JobLimitException(final String message) {
+    super(message);
+  }
+}
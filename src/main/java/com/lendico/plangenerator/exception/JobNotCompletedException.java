@@ -0,0 +1,11 @@
+package com.lendico.plangenerator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class JobNotCompletedException extends RuntimeException {
+  public JobNotCompletedException(final String message) {
+    super(message);
+  }
+}
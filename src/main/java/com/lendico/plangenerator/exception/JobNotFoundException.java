@@ -0,0 +1,11 @@
+package com.lendico.plangenerator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND)
+public class JobNotFoundException extends RuntimeException {
+  public JobNotFoundException(final String id) {
+    super("Job " + id + " not found");
+  }
+}
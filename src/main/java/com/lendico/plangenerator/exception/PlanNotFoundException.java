@@ -0,0 +1,11 @@
+package com.lendico.plangenerator.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND)
+public class PlanNotFoundException extends RuntimeException {
+  public PlanNotFoundException(final String id) {
+    super("Plan " + id + " not found");
+  }
+}
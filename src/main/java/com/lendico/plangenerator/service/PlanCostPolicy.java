@@ -0,0 +1,22 @@
+package com.lendico.plangenerator.service;
+
+import com.lendico.plangenerator.domain.PlanCriteria;
+import java.util.List;
+
+/**
+ * Upper bounds on the cost of generating plans, checked before any calculation. Criteria must have
+ * passed validation.
+ */
+public interface PlanCostPolicy {
+  /**
+   * @param criteria criteria of a single plan
+   * @return messages of the violated rules, empty when the plan is within budget
+   */
+  List<String> check(PlanCriteria criteria);
+
+  /**
+   * @param portfolio criteria of a bulk job, each one already checked
+   * @return messages of the violated rules, empty when the job is within budget
+   */
+  List<String> checkPortfolio(List<PlanCriteria> portfolio);
+}
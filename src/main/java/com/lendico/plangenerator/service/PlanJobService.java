@@ -0,0 +1,16 @@
+package com.lendico.plangenerator.service;
+
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.PlanJob;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface PlanJobService {
+  PlanJob submit(List<PlanCriteria> portfolio, String owner);
+
+  PlanJob getJob(String id, String owner);
+
+  Path getResult(String id, String owner);
+
+  PlanJob cancel(String id, String owner);
+}
@@ -0,0 +1,14 @@
+package com.lendico.plangenerator.service;
+
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import java.util.Optional;
+
+public interface PlanStore {
+  void save(RepaymentPlan plan);
+
+  Optional<byte[]> find(String id);
+
+  boolean delete(String id);
+
+  void compact();
+}
@@ -2,7 +2,19 @@ package com.lendico.plangenerator.service;
 
 import com.lendico.plangenerator.domain.PlanCriteria;
 import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.utility.PlanIdentifier;
+import com.lendico.plangenerator.utility.PrecisionProfile;
 
 public interface RepaymentPlanService {
   RepaymentPlan getRepaymentPlan(PlanCriteria criteria);
+
+  /**
+   * Get id of the plan generated for criteria, see {@link PlanIdentifier}.
+   *
+   * @param criteria input criteria
+   * @return plan id covering the precision profile the plan is calculated with
+   */
+  default String getPlanId(PlanCriteria criteria) {
+    return PlanIdentifier.of(criteria, PrecisionProfile.EXACT_18);
+  }
 }
@@ -0,0 +1,45 @@
+package com.lendico.plangenerator.service.impl;
+
+import com.lendico.plangenerator.cache.PlanCache;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Repayment service serving plans from a {@link PlanCache} by criteria hash and generating them
+ * with the delegate on a miss. Plans carry their id already. The caches keep plans encoded, so
+ * every request gets its own copy and changes to it do not reach the cache.
+ */
+public class CachingRepaymentPlanService implements RepaymentPlanService {
+
+  public static final Logger LOGGER = LogManager.getLogger(CachingRepaymentPlanService.class);
+
+  private final RepaymentPlanService delegate;
+  private final PlanCache planCache;
+
+  public CachingRepaymentPlanService(RepaymentPlanService delegate, PlanCache planCache) {
+    this.delegate = delegate;
+    this.planCache = planCache;
+  }
+
+  @Override
+  public RepaymentPlan getRepaymentPlan(PlanCriteria criteria) {
+    String key = getPlanId(criteria);
+    RepaymentPlan repaymentPlan = planCache.get(key);
+    if (repaymentPlan != null) {
+      LOGGER.debug("Repayment plan {} served from cache", key);
+      return repaymentPlan;
+    }
+    repaymentPlan = delegate.getRepaymentPlan(criteria);
+    repaymentPlan.setId(key);
+    planCache.put(key, repaymentPlan);
+    return repaymentPlan;
+  }
+
+  @Override
+  public String getPlanId(PlanCriteria criteria) {
+    return delegate.getPlanId(criteria);
+  }
+}
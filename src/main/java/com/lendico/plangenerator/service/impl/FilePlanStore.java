@@ -0,0 +1,412 @@
+package com.lendico.plangenerator.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.configuration.PlanStoreConfiguration;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.PlanStore;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import javax.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Plan store backed by an append only log file and an in-memory index of record offsets. Plans are
+ * stored as serialized json, so they can be returned without serializing them again.
+ *
+ * <p>Record layout: id length (short), payload length (int, -1 marks a deleted plan), id bytes,
+ * payload bytes and CRC32 of id and payload (int). When the store is opened, records failing their
+ * checksum are skipped. Bytes that cannot be read as records, e.g. a torn record at the end of the
+ * file, are copied to a quarantine file next to the log before they are dropped.
+ *
+ * <p>Plans are kept until they are deleted. With a maximum size, the oldest plans are evicted once
+ * live plans take more than it, their ids are no longer found. Once deleted and evicted records
+ * take more than the configured ratio of the file, live records are copied to a new file which
+ * replaces the log. Disabled with plan.store.enabled=false, plans are then neither stored nor
+ * served by id.
+ */
+@Service
+@ConditionalOnProperty(prefix = "plan.store", name = "enabled", matchIfMissing = true)
+public class FilePlanStore implements PlanStore {
+
+  public static final Logger LOGGER = LogManager.getLogger(FilePlanStore.class);
+  private static final int TOMBSTONE = -1;
+  private static final int HEADER_SIZE = 6;
+  private static final int RECORD_OVERHEAD = HEADER_SIZE + 4;
+
+  private final Path path;
+  private final double compactionRatio;
+  private final long compactionMinBytes;
+  private final long maxBytes;
+  private final ObjectMapper objectMapper;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // In log order, so the first entries are the oldest plans.
+  private Map<String, Location> index = new LinkedHashMap<>();
+  private FileChannel channel;
+  private long size;
+  private long liveBytes;
+
+  @Autowired
+  public FilePlanStore(PlanStoreConfiguration configuration, ObjectMapper objectMapper)
+      throws IOException {
+    this(
+        Paths.get(configuration.getPath()),
+        configuration.getCompactionRatio(),
+        configuration.getCompactionMinBytes(),
+        configuration.getMaxBytes(),
+        objectMapper);
+  }
+
+  public FilePlanStore(
+      Path path,
+      double compactionRatio,
+      long compactionMinBytes,
+      long maxBytes,
+      ObjectMapper objectMapper)
+      throws IOException {
+    // A relative path would depend on the working directory the application is started from.
+    if (!path.isAbsolute()) {
+      throw new IllegalArgumentException("Plan store path " + path + " must be absolute");
+    }
+    this.path = path;
+    this.compactionRatio = compactionRatio;
+    this.compactionMinBytes = compactionMinBytes;
+    this.maxBytes = maxBytes;
+    this.objectMapper = objectMapper;
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    this.channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    recover();
+    LOGGER.info("Opened plan store {} with {} plans", path, index.size());
+  }
+
+  /**
+   * Serialize and append plan unless a plan with the same id is already stored.
+   *
+   * @param plan plan with id
+   */
+  @Override
+  public void save(RepaymentPlan plan) {
+    if (contains(plan.getId())) {
+      return;
+    }
+    try {
+      byte[] payload = objectMapper.writeValueAsBytes(plan);
+      lock.writeLock().lock();
+      try {
+        if (!index.containsKey(plan.getId())) {
+          append(plan.getId(), payload);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Plan " + plan.getId() + " cannot be stored", e);
+    }
+  }
+
+  private boolean contains(String id) {
+    lock.readLock().lock();
+    try {
+      return index.containsKey(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Read serialized plan.
+   *
+   * @param id plan id
+   * @return json bytes of the plan as they were stored
+   */
+  @Override
+  public Optional<byte[]> find(String id) {
+    lock.readLock().lock();
+    try {
+      Location location = index.get(id);
+      if (location == null) {
+        return Optional.empty();
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(location.payloadLength);
+      long position = location.recordOffset + location.payloadStart;
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("Plan store " + path + " ends within plan " + id);
+        }
+      }
+      return Optional.of(buffer.array());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Plan " + id + " cannot be read", e);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Mark plan as deleted. Space is reclaimed by compaction.
+   *
+   * @param id plan id
+   * @return true if the plan existed
+   */
+  @Override
+  public boolean delete(String id) {
+    lock.writeLock().lock();
+    try {
+      if (!index.containsKey(id)) {
+        return false;
+      }
+      append(id, null);
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Plan " + id + " cannot be deleted", e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Copy live records to a new log file and replace the current one with it. The new file stays
+   * open while it is moved over the log, so the store keeps working with the current file when
+   * compaction fails.
+   */
+  @Override
+  public void compact() {
+    lock.writeLock().lock();
+    try {
+      long before = size;
+      Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+      Map<String, Location> compactedIndex = new LinkedHashMap<>();
+      long position = 0;
+      FileChannel target =
+          FileChannel.open(
+              compacted,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      try {
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+          Location location = entry.getValue();
+          long transferred = 0;
+          while (transferred < location.recordLength) {
+            transferred +=
+                channel.transferTo(
+                    location.recordOffset + transferred,
+                    location.recordLength - transferred,
+                    target);
+          }
+          compactedIndex.put(entry.getKey(), location.moveTo(position));
+          position += location.recordLength;
+        }
+        target.force(true);
+        Files.move(
+            compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        target.close();
+        Files.deleteIfExists(compacted);
+        throw e;
+      }
+      FileChannel previous = channel;
+      channel = target;
+      index = compactedIndex;
+      size = position;
+      liveBytes = position;
+      try {
+        previous.close();
+      } catch (IOException e) {
+        LOGGER.warn("Replaced plan store file {} cannot be closed", path, e);
+      }
+      LOGGER.info("Compacted plan store {} from {} to {} bytes", path, before, size);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Plan store " + path + " cannot be compacted", e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      channel.force(true);
+      channel.close();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Append record at the end of the log, caller holds the write lock. Null payload is a delete.
+  private void append(String id, byte[] payload) throws IOException {
+    byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+    int payloadLength = payload == null ? 0 : payload.length;
+    int recordLength = RECORD_OVERHEAD + idBytes.length + payloadLength;
+    ByteBuffer record = ByteBuffer.allocate(recordLength);
+    record.putShort((short) idBytes.length);
+    record.putInt(payload == null ? TOMBSTONE : payloadLength);
+    record.put(idBytes);
+    if (payload != null) {
+      record.put(payload);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), HEADER_SIZE, idBytes.length + payloadLength);
+    record.putInt((int) crc.getValue());
+    record.flip();
+
+    long recordOffset = size;
+    while (record.hasRemaining()) {
+      size += channel.write(record, size);
+    }
+    apply(
+        id,
+        payload == null
+            ? null
+            : new Location(
+                recordOffset, recordLength, HEADER_SIZE + idBytes.length, payloadLength));
+    evictIfNeeded();
+    compactIfNeeded();
+  }
+
+  // Update index and live bytes for a record read from or written to the log.
+  private void apply(String id, Location location) {
+    // Removed first, so a plan stored again moves to the end of the eviction order.
+    Location previous = index.remove(id);
+    if (previous != null) {
+      liveBytes -= previous.recordLength;
+    }
+    if (location != null) {
+      index.put(id, location);
+      liveBytes += location.recordLength;
+    }
+  }
+
+  // Evict oldest plans beyond the maximum, the latest one is kept even if it exceeds it alone.
+  private void evictIfNeeded() {
+    if (maxBytes <= 0) {
+      return;
+    }
+    Iterator<Location> oldest = index.values().iterator();
+    while (liveBytes > maxBytes && index.size() > 1) {
+      liveBytes -= oldest.next().recordLength;
+      oldest.remove();
+    }
+  }
+
+  private void compactIfNeeded() {
+    if (size >= compactionMinBytes && size - liveBytes > size * compactionRatio) {
+      compact();
+    }
+  }
+
+  // Rebuild index from the log, skip corrupted records and quarantine an unreadable tail.
+  private void recover() throws IOException {
+    long fileSize = channel.size();
+    long position = 0;
+    int corrupted = 0;
+    channel.position(0);
+    DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    while (position + RECORD_OVERHEAD <= fileSize) {
+      int idLength = in.readUnsignedShort();
+      int payloadLength = in.readInt();
+      if (payloadLength < TOMBSTONE) {
+        break;
+      }
+      int bodyLength = idLength + Math.max(payloadLength, 0);
+      long recordLength = (long) RECORD_OVERHEAD + bodyLength;
+      if (position + recordLength > fileSize) {
+        break;
+      }
+      byte[] body = new byte[bodyLength];
+      in.readFully(body);
+      int checksum = in.readInt();
+      CRC32 crc = new CRC32();
+      crc.update(body, 0, bodyLength);
+      if ((int) crc.getValue() == checksum) {
+        String id = new String(body, 0, idLength, StandardCharsets.UTF_8);
+        apply(
+            id,
+            payloadLength == TOMBSTONE
+                ? null
+                : new Location(
+                    position, (int) recordLength, HEADER_SIZE + idLength, payloadLength));
+        evictIfNeeded();
+      } else {
+        // Lengths were plausible, so the next record starts after this one.
+        corrupted++;
+      }
+      position += recordLength;
+    }
+    if (corrupted > 0) {
+      LOGGER.warn("Skipped {} plan records failing their checksum in {}", corrupted, path);
+    }
+    if (position < fileSize) {
+      quarantine(position, fileSize);
+      channel.truncate(position);
+    }
+    size = position;
+  }
+
+  // Copy bytes that cannot be read as records to a file of their own before they are dropped.
+  private void quarantine(long position, long fileSize) throws IOException {
+    Path quarantine =
+        path.resolveSibling(path.getFileName() + ".corrupt-" + System.currentTimeMillis());
+    try (FileChannel target =
+        FileChannel.open(quarantine, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      long transferred = 0;
+      while (transferred < fileSize - position) {
+        transferred +=
+            channel.transferTo(position + transferred, fileSize - position - transferred, target);
+      }
+      target.force(true);
+    }
+    LOGGER.warn(
+        "Moved {} unreadable bytes at offset {} of {} to {}",
+        fileSize - position,
+        position,
+        path,
+        quarantine);
+  }
+
+  /** Position of a stored plan within the log file. */
+  private static final class Location {
+    private final long recordOffset;
+    private final int recordLength;
+    private final int payloadStart;
+    private final int payloadLength;
+
+    private Location(long recordOffset, int recordLength, int payloadStart, int payloadLength) {
+      this.recordOffset = recordOffset;
+      this.recordLength = recordLength;
+      this.payloadStart = payloadStart;
+      this.payloadLength = payloadLength;
+    }
+
+    private Location moveTo(long offset) {
+      return new Location(offset, recordLength, payloadStart, payloadLength);
+    }
+  }
+}
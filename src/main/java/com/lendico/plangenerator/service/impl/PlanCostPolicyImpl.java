@@ -0,0 +1,87 @@
+package com.lendico.plangenerator.service.impl;
+
+import com.lendico.plangenerator.configuration.PlanCostConfiguration;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.service.PlanCostPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cost rules of plan generation. The monthly loop runs once per month of the duration, and every
+ * BigDecimal operation gets slower with the number of digits of rate and amount. Rejections are
+ * counted in {@value #METRIC}, tagged by rule.
+ */
+@Service
+public class PlanCostPolicyImpl implements PlanCostPolicy {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanCostPolicyImpl.class);
+  public static final String METRIC = "plan.cost.rejected";
+
+  private final PlanCostConfiguration configuration;
+  private final MeterRegistry meterRegistry;
+
+  @Autowired
+  public PlanCostPolicyImpl(PlanCostConfiguration configuration, MeterRegistry meterRegistry) {
+    this.configuration = configuration;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public List<String> check(PlanCriteria criteria) {
+    List<String> violations = new ArrayList<>();
+    if (criteria.getDuration() > configuration.getMaxDuration()) {
+      reject(
+          violations,
+          "duration",
+          "Duration cannot exceed " + configuration.getMaxDuration() + " months");
+    }
+    if (digits(criteria.getNominalRate()) > configuration.getMaxDigits()) {
+      reject(
+          violations,
+          "digits",
+          "Nominal rate cannot have more than " + configuration.getMaxDigits() + " digits");
+    }
+    if (digits(criteria.getLoanAmount()) > configuration.getMaxDigits()) {
+      reject(
+          violations,
+          "digits",
+          "Loan amount cannot have more than " + configuration.getMaxDigits() + " digits");
+    }
+    return violations;
+  }
+
+  @Override
+  public List<String> checkPortfolio(List<PlanCriteria> portfolio) {
+    List<String> violations = new ArrayList<>();
+    long months = 0;
+    for (PlanCriteria criteria : portfolio) {
+      months += criteria.getDuration();
+    }
+    if (months > configuration.getMaxPortfolioMonths()) {
+      reject(
+          violations,
+          "portfolio-months",
+          "Durations of the portfolio cannot add up to more than "
+              + configuration.getMaxPortfolioMonths()
+              + " months");
+    }
+    return violations;
+  }
+
+  private void reject(List<String> violations, String rule, String message) {
+    LOGGER.debug("Plan rejected by cost rule {}: {}", rule, message);
+    meterRegistry.counter(METRIC, "rule", rule).increment();
+    violations.add(message);
+  }
+
+  // Digits the calculation has to carry, 1e-9999 has a precision of one but ten thousand digits.
+  private static int digits(BigDecimal value) {
+    return Math.max(value.precision(), Math.max(value.scale(), value.precision() - value.scale()));
+  }
+}
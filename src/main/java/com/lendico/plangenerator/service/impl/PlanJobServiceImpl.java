@@ -0,0 +1,366 @@
+package com.lendico.plangenerator.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.configuration.PlanJobConfiguration;
+import com.lendico.plangenerator.domain.JobStatus;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.PlanCriteriaValidator;
+import com.lendico.plangenerator.domain.PlanJob;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.exception.CriteriaValidationException;
+import com.lendico.plangenerator.exception.JobLimitException;
+import com.lendico.plangenerator.exception.JobNotCompletedException;
+import com.lendico.plangenerator.exception.JobNotFoundException;
+import com.lendico.plangenerator.service.PlanCostPolicy;
+import com.lendico.plangenerator.service.PlanJobService;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import javax.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+
+/**
+ * Runs bulk plan jobs on a bounded worker pool. Results are streamed as a json array to a spool
+ * file per job, so a job never holds more than one plan in memory. Jobs are kept in memory only,
+ * spool files left over from a previous run are deleted at startup. Only files named like spool
+ * files are deleted, other files in the directory are left alone. Finished jobs and their spool
+ * files are removed in the background once the retention period has passed.
+ */
+@Service
+public class PlanJobServiceImpl implements PlanJobService {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanJobServiceImpl.class);
+  private static final String SPOOL_FILE_PREFIX = "plan-job-";
+  private static final Pattern SPOOL_FILE =
+      Pattern.compile(
+          Pattern.quote(SPOOL_FILE_PREFIX) + "[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.json");
+
+  private final RepaymentPlanService repaymentPlanService;
+  private final ObjectMapper objectMapper;
+  private final PlanCostPolicy planCostPolicy;
+  private final PlanJobConfiguration configuration;
+  private final Path spoolDirectory;
+  private final ThreadPoolExecutor executor;
+  private final ScheduledExecutorService cleanup;
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> activeJobs = new ConcurrentHashMap<>();
+
+  @Autowired
+  public PlanJobServiceImpl(
+      RepaymentPlanService repaymentPlanService,
+      ObjectMapper objectMapper,
+      PlanCostPolicy planCostPolicy,
+      PlanJobConfiguration configuration)
+      throws IOException {
+    this.repaymentPlanService = repaymentPlanService;
+    this.objectMapper = objectMapper;
+    this.planCostPolicy = planCostPolicy;
+    this.configuration = configuration;
+    this.spoolDirectory = Paths.get(configuration.getSpoolDirectory());
+    // A relative path would depend on the working directory the application is started from.
+    if (!spoolDirectory.isAbsolute()) {
+      throw new IllegalArgumentException(
+          "Job spool directory " + spoolDirectory + " must be absolute");
+    }
+    Files.createDirectories(spoolDirectory);
+    try (DirectoryStream<Path> leftovers =
+        Files.newDirectoryStream(
+            spoolDirectory, file -> SPOOL_FILE.matcher(file.getFileName().toString()).matches())) {
+      for (Path leftover : leftovers) {
+        Files.delete(leftover);
+      }
+    }
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            configuration.getWorkerThreads(),
+            configuration.getWorkerThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(configuration.getMaxQueuedJobs()),
+            runnable -> {
+              Thread thread = new Thread(runnable, "plan-job-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.cleanup =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "plan-job-cleanup");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = configuration.getCleanupInterval().toMillis();
+    cleanup.scheduleWithFixedDelay(
+        this::removeExpiredJobs, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Validate portfolio and queue it for processing.
+   *
+   * @param portfolio criteria of every plan
+   * @param owner principal submitting the job
+   * @return queued job
+   */
+  @Override
+  public PlanJob submit(List<PlanCriteria> portfolio, String owner) {
+    validate(portfolio);
+    AtomicInteger active = activeJobs.computeIfAbsent(owner, key -> new AtomicInteger());
+    if (active.incrementAndGet() > configuration.getMaxJobsPerPrincipal()) {
+      active.decrementAndGet();
+      throw new JobLimitException(
+          "Not more than "
+              + configuration.getMaxJobsPerPrincipal()
+              + " jobs can be queued or running at the same time");
+    }
+    String id = UUID.randomUUID().toString();
+    Job job =
+        new Job(
+            id, owner, portfolio.size(), spoolDirectory.resolve(SPOOL_FILE_PREFIX + id + ".json"));
+    jobs.put(id, job);
+    try {
+      executor.execute(() -> run(job, portfolio));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(id);
+      active.decrementAndGet();
+      throw new JobLimitException("Job queue is full, please retry later");
+    }
+    LOGGER.info("User {} submitted job {} with {} criteria", owner, id, portfolio.size());
+    return job.toPlanJob();
+  }
+
+  @Override
+  public PlanJob getJob(String id, String owner) {
+    return findJob(id, owner).toPlanJob();
+  }
+
+  /**
+   * Get spool file of a completed job.
+   *
+   * @param id job id
+   * @param owner principal that submitted the job
+   * @return json array of results
+   */
+  @Override
+  public Path getResult(String id, String owner) {
+    Job job = findJob(id, owner);
+    if (job.status.get() != JobStatus.COMPLETED) {
+      throw new JobNotCompletedException("Job " + id + " is " + job.status.get());
+    }
+    return job.resultFile;
+  }
+
+  /**
+   * Cancel queued or running job. Running jobs stop before the next plan.
+   *
+   * @param id job id
+   * @param owner principal that submitted the job
+   * @return job after cancellation
+   */
+  @Override
+  public PlanJob cancel(String id, String owner) {
+    Job job = findJob(id, owner);
+    while (true) {
+      JobStatus status = job.status.get();
+      if (status.isFinished()) {
+        break;
+      }
+      if (job.status.compareAndSet(status, JobStatus.CANCELLED)) {
+        LOGGER.info("User {} cancelled job {}", owner, id);
+        // Queued job never reaches a worker, running job is released by its worker.
+        if (status == JobStatus.QUEUED) {
+          release(job);
+        }
+        break;
+      }
+    }
+    return job.toPlanJob();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    cleanup.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  private void run(Job job, List<PlanCriteria> portfolio) {
+    if (!job.status.compareAndSet(JobStatus.QUEUED, JobStatus.RUNNING)) {
+      return;
+    }
+    try (JsonGenerator generator =
+        objectMapper
+            .getFactory()
+            .createGenerator(new BufferedOutputStream(Files.newOutputStream(job.resultFile)))) {
+      generator.writeStartArray();
+      for (int index = 0; index < portfolio.size(); index++) {
+        if (job.status.get() == JobStatus.CANCELLED) {
+          break;
+        }
+        PlanCriteria criteria = portfolio.get(index);
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        try {
+          RepaymentPlan repaymentPlan = repaymentPlanService.getRepaymentPlan(criteria);
+          if (repaymentPlan.getId() == null) {
+            repaymentPlan.setId(repaymentPlanService.getPlanId(criteria));
+          }
+          generator.writeObjectField("plan", repaymentPlan);
+        } catch (RuntimeException e) {
+          LOGGER.debug("Plan {} of job {} cannot be calculated", index, job.id, e);
+          generator.writeStringField("error", String.valueOf(e.getMessage()));
+          job.failed.incrementAndGet();
+        }
+        generator.writeEndObject();
+        job.completed.incrementAndGet();
+      }
+      generator.writeEndArray();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.error("Job {} failed", job.id, e);
+      job.message = "Results cannot be written: " + e.getMessage();
+      job.status.compareAndSet(JobStatus.RUNNING, JobStatus.FAILED);
+    } finally {
+      job.status.compareAndSet(JobStatus.RUNNING, JobStatus.COMPLETED);
+      release(job);
+      LOGGER.info("Job {} finished with status {}", job.id, job.status.get());
+    }
+  }
+
+  // Free the slot of the owner once job is finished, results are only kept for completed jobs.
+  private void release(Job job) {
+    job.finishedAt = new Date();
+    activeJobs.get(job.owner).decrementAndGet();
+    if (job.status.get() != JobStatus.COMPLETED) {
+      deleteResult(job);
+    }
+  }
+
+  // Runs on the cleanup thread, a failure must not stop later runs.
+  private void removeExpiredJobs() {
+    long expiredBefore = System.currentTimeMillis() - configuration.getRetention().toMillis();
+    for (Job job : jobs.values()) {
+      Date finishedAt = job.finishedAt;
+      if (finishedAt != null && finishedAt.getTime() < expiredBefore) {
+        try {
+          deleteResult(job);
+          jobs.remove(job.id);
+        } catch (RuntimeException e) {
+          LOGGER.warn("Expired job {} cannot be removed", job.id, e);
+        }
+      }
+    }
+  }
+
+  private void deleteResult(Job job) {
+    try {
+      Files.deleteIfExists(job.resultFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Spool file of job " + job.id + " cannot be deleted", e);
+    }
+  }
+
+  private void validate(List<PlanCriteria> portfolio) {
+    List<String> errors = new ArrayList<>();
+    if (portfolio == null || portfolio.isEmpty()) {
+      errors.add("Portfolio must contain at least one plan criteria");
+    } else if (portfolio.size() > configuration.getMaxPortfolioSize()) {
+      errors.add(
+          "Portfolio cannot contain more than "
+              + configuration.getMaxPortfolioSize()
+              + " plan criteria");
+    } else {
+      for (int index = 0; index < portfolio.size(); index++) {
+        PlanCriteria criteria = portfolio.get(index);
+        if (criteria == null) {
+          errors.add("[" + index + "] Plan criteria is mandatory");
+          continue;
+        }
+        Errors criteriaErrors = new BeanPropertyBindingResult(criteria, "planCriteria");
+        PlanCriteriaValidator.INSTANCE.validate(criteria, criteriaErrors);
+        for (FieldError error : criteriaErrors.getFieldErrors()) {
+          errors.add("[" + index + "] " + error.getDefaultMessage());
+        }
+        if (!criteriaErrors.hasErrors()) {
+          for (String violation : planCostPolicy.check(criteria)) {
+            errors.add("[" + index + "] " + violation);
+          }
+        }
+      }
+      if (errors.isEmpty()) {
+        errors.addAll(planCostPolicy.checkPortfolio(portfolio));
+      }
+    }
+    if (!errors.isEmpty()) {
+      throw new CriteriaValidationException(errors);
+    }
+  }
+
+  private Job findJob(String id, String owner) {
+    Job job = jobs.get(id);
+    // Jobs of other principals are reported as missing.
+    if (job == null || !job.owner.equals(owner)) {
+      throw new JobNotFoundException(id);
+    }
+    return job;
+  }
+
+  /** Progress of a job, updated by its worker. */
+  private static final class Job {
+    private final String id;
+    private final String owner;
+    private final int total;
+    private final Path resultFile;
+    private final Date submittedAt = new Date();
+    private final AtomicReference<JobStatus> status = new AtomicReference<>(JobStatus.QUEUED);
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile Date finishedAt;
+    private volatile String message;
+
+    private Job(String id, String owner, int total, Path resultFile) {
+      this.id = id;
+      this.owner = owner;
+      this.total = total;
+      this.resultFile = resultFile;
+    }
+
+    private PlanJob toPlanJob() {
+      return PlanJob.builder()
+          .id(id)
+          .status(status.get())
+          .total(total)
+          .completed(completed.get())
+          .failed(failed.get())
+          .submittedAt(submittedAt)
+          .finishedAt(finishedAt)
+          .message(message)
+          .build();
+    }
+  }
+}
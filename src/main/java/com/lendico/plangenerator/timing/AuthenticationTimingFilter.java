@@ -0,0 +1,22 @@
+package com.lendico.plangenerator.timing;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Ends the {@link Stage#AUTH} stage. Added as last filter of the security filter chain, it must not
+ * be registered as a servlet filter.
+ */
+public class AuthenticationTimingFilter extends GenericFilterBean {
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    StageTimings.end(Stage.AUTH);
+    chain.doFilter(request, response);
+  }
+}
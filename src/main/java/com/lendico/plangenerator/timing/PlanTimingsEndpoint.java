@@ -0,0 +1,68 @@
+package com.lendico.plangenerator.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator view of the plan request stage timers. Percentiles, max and histogram cover the rolling
+ * window configured with plan.timing.window, count and mean cover the whole uptime.
+ */
+@Component
+@Endpoint(id = "plantimings")
+public class PlanTimingsEndpoint {
+
+  private final MeterRegistry meterRegistry;
+
+  public PlanTimingsEndpoint(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @ReadOperation
+  public Map<String, Map<String, Object>> timings() {
+    Map<String, Map<String, Object>> timings = new LinkedHashMap<>();
+    for (Stage stage : Stage.values()) {
+      Timer timer =
+          meterRegistry.find(StageTimingFilter.METRIC).tag("stage", stage.getMetricName()).timer();
+      if (timer != null && timer.count() > 0) {
+        timings.put(stage.getMetricName(), summarize(timer.takeSnapshot()));
+      }
+    }
+    return timings;
+  }
+
+  private static Map<String, Object> summarize(HistogramSnapshot snapshot) {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("count", snapshot.count());
+    summary.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+    summary.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+    for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+      summary.put(
+          String.format(Locale.ROOT, "p%.0fMs", percentile.percentile() * 100),
+          percentile.value(TimeUnit.MILLISECONDS));
+    }
+    // Cumulative counts per upper bound, buckets no value fell into since the previous one are
+    // left out.
+    Map<String, Double> histogram = new LinkedHashMap<>();
+    double previous = 0;
+    for (CountAtBucket bucket : snapshot.histogramCounts()) {
+      if (bucket.count() > previous) {
+        histogram.put(
+            String.format(Locale.ROOT, "%.3f", bucket.bucket(TimeUnit.MILLISECONDS)),
+            bucket.count());
+        previous = bucket.count();
+      }
+    }
+    summary.put("histogramMs", histogram);
+    return summary;
+  }
+}
@@ -0,0 +1,24 @@
+package com.lendico.plangenerator.timing;
+
+/** Stages of the plan request pipeline timed by {@link StageTimings}. */
+public enum Stage {
+  AUTH("auth"),
+  DESERIALIZE("deserialize"),
+  // Criteria validation and cost limits, until plan generation starts.
+  CHECK("check"),
+  ANNUITY("annuity"),
+  SCHEDULE("schedule"),
+  SERIALIZE("serialize"),
+  TOTAL("total");
+
+  private final String metricName;
+
+  Stage(String metricName) {
+    this.metricName = metricName;
+  }
+
+  /** @return name used in the Server-Timing header and as metric tag */
+  public String getMetricName() {
+    return metricName;
+  }
+}
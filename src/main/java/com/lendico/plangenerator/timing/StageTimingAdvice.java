@@ -0,0 +1,75 @@
+package com.lendico.plangenerator.timing;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Times reading of request bodies and marks the start of response body writing, which ends in
+ * {@link StageTimingFilter} once the body has been written. Checks of the criteria run from the end
+ * of body reading until plan generation starts, see {@link StageTimingPostProcessor}, or the
+ * response is written.
+ */
+@ControllerAdvice
+public class StageTimingAdvice extends RequestBodyAdviceAdapter
+    implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(
+      MethodParameter methodParameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(
+      HttpInputMessage inputMessage,
+      MethodParameter parameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType)
+      throws IOException {
+    StageTimings.begin(Stage.DESERIALIZE);
+    return inputMessage;
+  }
+
+  @Override
+  public Object afterBodyRead(
+      Object body,
+      HttpInputMessage inputMessage,
+      MethodParameter parameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    StageTimings.end(Stage.DESERIALIZE);
+    StageTimings.begin(Stage.CHECK);
+    return body;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    // Rejected requests are never generated.
+    StageTimings.end(Stage.CHECK);
+    StageTimings.begin(Stage.SERIALIZE);
+    return body;
+  }
+}
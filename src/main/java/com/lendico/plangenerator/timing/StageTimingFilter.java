@@ -0,0 +1,101 @@
+package com.lendico.plangenerator.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Times plan generation requests, POST /plans, from before authentication until the response body
+ * has been written. Stage durations are recorded to the {@value #METRIC} timers, tagged by stage,
+ * whose percentiles cover the configured rolling window. Requests sending {@value
+ * #TIMING_REQUEST_HEADER}: true get them back in a Server-Timing header, their response is buffered
+ * so the header can follow the body.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StageTimingFilter extends OncePerRequestFilter {
+
+  public static final String METRIC = "plan.stage";
+  public static final String TIMING_REQUEST_HEADER = "X-Plan-Timing";
+  public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+  public StageTimingFilter(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${plan.timing.window:1m}") Duration window) {
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    if (registry != null) {
+      for (Stage stage : Stage.values()) {
+        timers.put(
+            stage,
+            Timer.builder(METRIC)
+                .description("Duration of plan request stages")
+                .tag("stage", stage.getMetricName())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .distributionStatisticExpiry(window)
+                .register(registry));
+      }
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.POST.matches(request.getMethod())
+        || !request.getRequestURI().equals(request.getContextPath() + "/plans");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    StageTimings timings = StageTimings.start();
+    ContentCachingResponseWrapper bufferedResponse =
+        Boolean.parseBoolean(request.getHeader(TIMING_REQUEST_HEADER))
+            ? new ContentCachingResponseWrapper(response)
+            : null;
+    // Ended by AuthenticationTimingFilter at the end of the security filter chain.
+    StageTimings.begin(Stage.AUTH);
+    try {
+      filterChain.doFilter(request, bufferedResponse == null ? response : bufferedResponse);
+    } finally {
+      // Rejected requests never reach the end of the security chain.
+      StageTimings.end(Stage.AUTH);
+      StageTimings.end(Stage.SERIALIZE);
+      timings.finish();
+      record(timings);
+      if (bufferedResponse != null) {
+        response.setHeader(SERVER_TIMING_HEADER, timings.toServerTiming());
+        bufferedResponse.copyBodyToResponse();
+      }
+    }
+  }
+
+  private void record(StageTimings timings) {
+    for (Map.Entry<Stage, Timer> timer : timers.entrySet()) {
+      long nanos = timings.getNanos(timer.getKey());
+      if (nanos >= 0) {
+        timer.getValue().record(nanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.lendico.plangenerator.timing;
+
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.PlanCalculator;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the steps of plan generation around the calls of the calculation beans, so the engine does
+ * not depend on timing. {@link RepaymentPlanService#getRepaymentPlan} ends {@link Stage#CHECK},
+ * {@link PlanCalculator} calls are timed as {@link Stage#ANNUITY} and {@link Stage#SCHEDULE}. Beans
+ * are proxied by class as they are also injected by implementation type.
+ */
+@Component
+public class StageTimingPostProcessor implements BeanPostProcessor {
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof PlanCalculator) {
+      return proxy(bean, StageTimingPostProcessor::timeCalculation);
+    }
+    if (bean instanceof RepaymentPlanService) {
+      return proxy(bean, StageTimingPostProcessor::endChecks);
+    }
+    return bean;
+  }
+
+  private static Object proxy(Object bean, MethodInterceptor interceptor) {
+    ProxyFactory proxyFactory = new ProxyFactory(bean);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAdvice(interceptor);
+    return proxyFactory.getProxy();
+  }
+
+  private static Object endChecks(MethodInvocation invocation) throws Throwable {
+    if ("getRepaymentPlan".equals(invocation.getMethod().getName())) {
+      StageTimings.end(Stage.CHECK);
+    }
+    return invocation.proceed();
+  }
+
+  private static Object timeCalculation(MethodInvocation invocation) throws Throwable {
+    Stage stage;
+    switch (invocation.getMethod().getName()) {
+      case "calculateAnnuityAmount":
+        stage = Stage.ANNUITY;
+        break;
+      case "calculateMonthlyData":
+        stage = Stage.SCHEDULE;
+        break;
+      default:
+        return invocation.proceed();
+    }
+    StageTimings.begin(stage);
+    try {
+      return invocation.proceed();
+    } finally {
+      StageTimings.end(stage);
+    }
+  }
+}
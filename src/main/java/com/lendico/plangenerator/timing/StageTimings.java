@@ -0,0 +1,85 @@
+package com.lendico.plangenerator.timing;
+
+import java.util.Locale;
+
+/**
+ * Stage durations of the request handled by the current thread. Timing is only active between
+ * {@link #start()} and {@link #finish()}, {@link #begin(Stage)} and {@link #end(Stage)} are no-ops
+ * on other threads, e.g. bulk job workers, and cost a thread local lookup.
+ */
+public final class StageTimings {
+
+  private static final ThreadLocal<StageTimings> CURRENT = new ThreadLocal<>();
+  private static final Stage[] STAGES = Stage.values();
+
+  private final long startedAt = System.nanoTime();
+  private final long[] stageStartedAt = new long[STAGES.length];
+  private final boolean[] running = new boolean[STAGES.length];
+  private final long[] durations = new long[STAGES.length];
+  private final boolean[] recorded = new boolean[STAGES.length];
+
+  private StageTimings() {}
+
+  /**
+   * Start timing the request of the current thread.
+   *
+   * @return timings of the request
+   */
+  public static StageTimings start() {
+    StageTimings timings = new StageTimings();
+    CURRENT.set(timings);
+    return timings;
+  }
+
+  /** Mark start of the stage. */
+  public static void begin(Stage stage) {
+    StageTimings timings = CURRENT.get();
+    if (timings != null) {
+      timings.stageStartedAt[stage.ordinal()] = System.nanoTime();
+      timings.running[stage.ordinal()] = true;
+    }
+  }
+
+  /** Mark end of the stage, stages run more than once add up. Ignored when stage is not running. */
+  public static void end(Stage stage) {
+    StageTimings timings = CURRENT.get();
+    if (timings != null && timings.running[stage.ordinal()]) {
+      timings.running[stage.ordinal()] = false;
+      timings.durations[stage.ordinal()] +=
+          System.nanoTime() - timings.stageStartedAt[stage.ordinal()];
+      timings.recorded[stage.ordinal()] = true;
+    }
+  }
+
+  /** Stop timing on the current thread and record the total duration. */
+  public void finish() {
+    CURRENT.remove();
+    durations[Stage.TOTAL.ordinal()] = System.nanoTime() - startedAt;
+    recorded[Stage.TOTAL.ordinal()] = true;
+  }
+
+  /**
+   * @param stage timed stage
+   * @return duration in nanoseconds, -1 when the stage did not run
+   */
+  public long getNanos(Stage stage) {
+    return recorded[stage.ordinal()] ? durations[stage.ordinal()] : -1;
+  }
+
+  /** @return recorded stages formatted as Server-Timing header value, durations in milliseconds */
+  public String toServerTiming() {
+    StringBuilder header = new StringBuilder();
+    for (Stage stage : STAGES) {
+      if (recorded[stage.ordinal()]) {
+        if (header.length() > 0) {
+          header.append(", ");
+        }
+        header
+            .append(stage.getMetricName())
+            .append(";dur=")
+            .append(String.format(Locale.ROOT, "%.3f", durations[stage.ordinal()] / 1e6));
+      }
+    }
+    return header.toString();
+  }
+}
@@ -0,0 +1,127 @@
+package com.lendico.plangenerator.utility;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Read only view of a precomputed amortization table file generated by {@link
+ * AmortizationTableGenerator}. The table holds the annuity discount factor 1-(1+r)^-n for a
+ * catalogue of (nominal rate, duration) pairs. The discount factor is the only part of the annuity
+ * formula that is independent of the principal, so scaling it by the requested loan amount gives
+ * the same annuity as live calculation.
+ *
+ * <p>File layout (big endian): magic, version and number of records followed by fixed size records
+ * sorted by rate and duration. Each record holds the rate in fixed point with {@link #RATE_SCALE}
+ * decimals (long), the duration (int) and the discount factor as unscaled value (long) and scale
+ * (int).
+ */
+public class AmortizationTable {
+  public static final Logger LOGGER = LogManager.getLogger(AmortizationTable.class);
+
+  public static final AmortizationTable EMPTY = new AmortizationTable(null, 0);
+
+  static final int MAGIC = 0x504c4154;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 12;
+  static final int RECORD_SIZE = 24;
+  static final int RATE_SCALE = 4;
+
+  private static final BigDecimal MAX_RATE_KEY = BigDecimal.valueOf(Long.MAX_VALUE);
+
+  private final ByteBuffer buffer;
+  private final int size;
+
+  private AmortizationTable(ByteBuffer buffer, int size) {
+    this.buffer = buffer;
+    this.size = size;
+  }
+
+  /**
+   * Memory map table file. Mapping stays valid after the channel is closed.
+   *
+   * @param path table file
+   * @return table backed by the mapped file
+   * @throws IOException if file cannot be read or is not a valid table
+   */
+  public static AmortizationTable load(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        throw new IOException("Not an amortization table: " + path);
+      }
+      ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, fileSize);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new IOException("Not an amortization table or unsupported version: " + path);
+      }
+      int size = buffer.getInt(8);
+      if (fileSize != HEADER_SIZE + (long) size * RECORD_SIZE) {
+        throw new IOException("Amortization table is truncated: " + path);
+      }
+      LOGGER.info("Loaded amortization table {} with {} entries", path, size);
+      return new AmortizationTable(buffer, size);
+    }
+  }
+
+  /**
+   * Get precomputed discount factor for the rate and duration.
+   *
+   * @param nominalRate Nominal Rate in percentage
+   * @param duration Period for loan repayment
+   * @return discount factor or null if the pair is not part of the catalogue
+   */
+  public BigDecimal getDiscountFactor(BigDecimal nominalRate, Integer duration) {
+    if (size == 0 || nominalRate == null || duration == null) {
+      return null;
+    }
+    long rateKey = rateKey(nominalRate);
+    if (rateKey < 0) {
+      return null;
+    }
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int offset = HEADER_SIZE + middle * RECORD_SIZE;
+      int compare = Long.compare(buffer.getLong(offset), rateKey);
+      if (compare == 0) {
+        compare = Integer.compare(buffer.getInt(offset + 8), duration);
+      }
+      if (compare < 0) {
+        low = middle + 1;
+      } else if (compare > 0) {
+        high = middle - 1;
+      } else {
+        return BigDecimal.valueOf(buffer.getLong(offset + 12), buffer.getInt(offset + 20));
+      }
+    }
+    return null;
+  }
+
+  /** @return number of (rate, duration) pairs in the table */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Convert rate to fixed point key of the table.
+   *
+   * @param nominalRate Nominal Rate in percentage
+   * @return key or -1 if the rate cannot be represented with {@link #RATE_SCALE} decimals
+   */
+  static long rateKey(BigDecimal nominalRate) {
+    BigDecimal scaled = nominalRate.movePointRight(RATE_SCALE);
+    if (scaled.signum() < 0
+        || scaled.remainder(BigDecimal.ONE).signum() != 0
+        || scaled.compareTo(MAX_RATE_KEY) > 0) {
+      return -1;
+    }
+    return scaled.longValue();
+  }
+}
@@ -0,0 +1,114 @@
+package com.lendico.plangenerator.utility;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Generates amortization table file for a catalogue of nominal rates and durations. The file is
+ * written next to the target and moved in place, so a table mapped by a running service is never
+ * modified.
+ */
+public class AmortizationTableGenerator {
+  public static final Logger LOGGER = LogManager.getLogger(AmortizationTableGenerator.class);
+
+  private AmortizationTableGenerator() {}
+
+  /**
+   * Generate table file from command line. Usage: {@code AmortizationTableGenerator <file>
+   * <rate,rate,...> <duration,duration,...>}
+   *
+   * @param args file, comma separated rates and comma separated durations
+   * @throws IOException if table cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 3) {
+      System.err.println(
+          "Usage: AmortizationTableGenerator <file> <rate,rate,...> <duration,duration,...>");
+      System.exit(1);
+    }
+    List<BigDecimal> rates = new ArrayList<>();
+    for (String rate : args[1].split(",")) {
+      rates.add(new BigDecimal(rate.trim()));
+    }
+    List<Integer> durations = new ArrayList<>();
+    for (String duration : args[2].split(",")) {
+      durations.add(Integer.valueOf(duration.trim()));
+    }
+    generate(Paths.get(args[0]), rates, durations);
+  }
+
+  /**
+   * Write discount factors of every (rate, duration) pair to the table file.
+   *
+   * @param path table file
+   * @param rates nominal rates in percentage
+   * @param durations loan durations
+   * @return number of entries written
+   * @throws IOException if table cannot be written
+   */
+  public static int generate(Path path, Collection<BigDecimal> rates, Collection<Integer> durations)
+      throws IOException {
+    // Sorted by rate key and duration as required for the binary search of AmortizationTable.
+    Map<Long, Map<Integer, BigDecimal>> entries = new TreeMap<>();
+    for (BigDecimal rate : rates) {
+      long rateKey = AmortizationTable.rateKey(rate);
+      if (rateKey < 0) {
+        LOGGER.warn("Rate {} cannot be stored in amortization table, skipped", rate);
+        continue;
+      }
+      for (Integer duration : durations) {
+        BigDecimal discountFactor = AnnuityUtil.getDiscountFactor(duration, rate);
+        if (discountFactor.unscaledValue().bitLength() > 63) {
+          LOGGER.warn(
+              "Discount factor for rate {} and duration {} exceeds table precision, skipped",
+              rate,
+              duration);
+          continue;
+        }
+        entries.computeIfAbsent(rateKey, key -> new TreeMap<>()).put(duration, discountFactor);
+      }
+    }
+    int size = 0;
+    for (Map<Integer, BigDecimal> byDuration : entries.values()) {
+      size += byDuration.size();
+    }
+
+    Path parent = path.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(AmortizationTable.MAGIC);
+        out.writeInt(AmortizationTable.VERSION);
+        out.writeInt(size);
+        for (Map.Entry<Long, Map<Integer, BigDecimal>> byRate : entries.entrySet()) {
+          for (Map.Entry<Integer, BigDecimal> entry : byRate.getValue().entrySet()) {
+            out.writeLong(byRate.getKey());
+            out.writeInt(entry.getKey());
+            out.writeLong(entry.getValue().unscaledValue().longValue());
+            out.writeInt(entry.getValue().scale());
+          }
+        }
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    LOGGER.info("Generated amortization table {} with {} entries", path, size);
+    return size;
+  }
+}
@@ -28,20 +28,89 @@ public class AnnuityUtil {
    */
   public static BigDecimal getAnnuityAmount(
       Integer duration, BigDecimal nominalRate, BigDecimal principalAmount) {
+    return getAnnuityAmount(duration, nominalRate, principalAmount, PrecisionProfile.EXACT_18);
+  }
+
+  /**
+   * Get Annuity amount calculated with the precision of the profile.
+   *
+   * @param duration Period for loan repayment
+   * @param nominalRate Nominal Rate in percentage
+   * @param principalAmount Principal amount
+   * @param precision precision of intermediate results
+   * @return Annuity amount to be paid over the period mentioned
+   */
+  public static BigDecimal getAnnuityAmount(
+      Integer duration,
+      BigDecimal nominalRate,
+      BigDecimal principalAmount,
+      PrecisionProfile precision) {
     LOGGER.trace(
         "Calculate Annuity amount on {} with interest rate of {} for duration {}",
         principalAmount,
         nominalRate,
         duration);
+    AnnuityUtil annuityUtil = getInstance();
+    MathContext mc = precision.getMathContext();
+    // Calculate effective interest rate for each interval
+    BigDecimal effectiveRate = annuityUtil.calculateEffectiveRate(nominalRate, duration, mc);
+    LOGGER.trace("Effective interest rate: {} ", effectiveRate);
+    // Get annuity amount for each interval
+    return annuityUtil.calculatePaymentAmount(duration, effectiveRate, principalAmount, mc);
+  }
+
+  /**
+   * Get Annuity amount using an already known discount factor, e.g. one served from an amortization
+   * table. Result is identical to {@link #getAnnuityAmount(Integer, BigDecimal, BigDecimal)} when
+   * the discount factor was calculated by {@link #getDiscountFactor(Integer, BigDecimal)}, both use
+   * {@link PrecisionProfile#EXACT_18}.
+   *
+   * @param duration Period for loan repayment
+   * @param nominalRate Nominal Rate in percentage
+   * @param principalAmount Principal amount
+   * @param discountFactor discount factor 1-(1+r)^-n for the rate and duration
+   * @return Annuity amount to be paid over the period mentioned
+   */
+  public static BigDecimal getAnnuityAmount(
+      Integer duration,
+      BigDecimal nominalRate,
+      BigDecimal principalAmount,
+      BigDecimal discountFactor) {
+    if (discountFactor == null || principalAmount == null) {
+      throw new DataException(
+          "These fields cannot be null for calculation. discountFactor("
+              + discountFactor
+              + ") principalAmount("
+              + principalAmount
+              + ")");
+    }
+    AnnuityUtil annuityUtil = getInstance();
+    MathContext mc = PrecisionProfile.EXACT_18.getMathContext();
+    BigDecimal effectiveRate = annuityUtil.calculateEffectiveRate(nominalRate, duration, mc);
+    return annuityUtil.calculatePaymentAmount(effectiveRate, discountFactor, principalAmount, mc);
+  }
+
+  /**
+   * Get discount factor 1-(1+r)^-n of the annuity formula. It only depends on nominal rate and
+   * duration, so it can be precomputed for a catalogue of products.
+   *
+   * @param duration Period for loan repayment
+   * @param nominalRate Nominal Rate in percentage
+   * @return discount factor used as divisor of the annuity formula
+   */
+  public static BigDecimal getDiscountFactor(Integer duration, BigDecimal nominalRate) {
+    AnnuityUtil annuityUtil = getInstance();
+    MathContext mc = PrecisionProfile.EXACT_18.getMathContext();
+    BigDecimal effectiveRate = annuityUtil.calculateEffectiveRate(nominalRate, duration, mc);
+    return annuityUtil.calculateDiscountFactor(duration, effectiveRate, mc);
+  }
+
+  private static AnnuityUtil getInstance() {
     if (annuityUtil == null) {
       LOGGER.debug("Creating an instance of AnnuityUtil");
       annuityUtil = new AnnuityUtil();
     }
-    // Calculate effective interest rate for each interval
-    BigDecimal effectiveRate = annuityUtil.calculateEffectiveRate(nominalRate, duration);
-    LOGGER.trace("Effective interest rate: {} ", effectiveRate);
-    // Get annuity amount for each interval
-    return annuityUtil.calculatePaymentAmount(duration, effectiveRate, principalAmount);
+    return annuityUtil;
   }
 
   /**
@@ -51,10 +120,11 @@ public class AnnuityUtil {
    * @param duration Period for loan repayment
    * @param effectiveRate effective monthly interest rate
    * @param principalAmount Principal amount
+   * @param mc precision of intermediate results
    * @return Annuity amount calculated for each month.
    */
   private BigDecimal calculatePaymentAmount(
-      Integer duration, BigDecimal effectiveRate, BigDecimal principalAmount) {
+      Integer duration, BigDecimal effectiveRate, BigDecimal principalAmount, MathContext mc) {
     if (duration == null || effectiveRate == null || principalAmount == null) {
       LOGGER.error("It will throw an exception because one the input is invalid");
       LOGGER.debug("duration:{}", duration);
@@ -68,23 +138,55 @@ public class AnnuityUtil {
               + ") principalAmount("
               + principalAmount);
     }
-    MathContext mc = new MathContext(18, RoundingMode.HALF_UP);
+    return calculatePaymentAmount(
+        effectiveRate, calculateDiscountFactor(duration, effectiveRate, mc), principalAmount, mc);
+  }
+
+  /**
+   * Calculate Annuity payment based on effective interest rate and discount factor of the loan.
+   *
+   * @param effectiveRate effective monthly interest rate
+   * @param discountFactor discount factor 1-(1+r)^-n
+   * @param principalAmount Principal amount
+   * @param mc precision of intermediate results
+   * @return Annuity amount calculated for each month.
+   */
+  private BigDecimal calculatePaymentAmount(
+      BigDecimal effectiveRate,
+      BigDecimal discountFactor,
+      BigDecimal principalAmount,
+      MathContext mc) {
     return effectiveRate
         .multiply(principalAmount, mc)
-        .divide(
-            BigDecimal.ONE.subtract(BigDecimal.ONE.add(effectiveRate, mc).pow(-duration, mc)), mc)
+        .divide(discountFactor, mc)
         .setScale(2, RoundingMode.UP);
   }
 
+  /**
+   * Calculate discount factor of the annuity formula. Formula : 1-(1+r)^-n where r is effective
+   * rate and n is duration.
+   *
+   * @param duration Period for loan repayment
+   * @param effectiveRate effective monthly interest rate
+   * @param mc precision of intermediate results
+   * @return discount factor
+   */
+  private BigDecimal calculateDiscountFactor(
+      Integer duration, BigDecimal effectiveRate, MathContext mc) {
+    return BigDecimal.ONE.subtract(BigDecimal.ONE.add(effectiveRate, mc).pow(-duration, mc));
+  }
+
   /**
    * Calculate effective interest rate for each month based on yearly rate. Formula : (r/100)/12
    * where r is nominal rate. 12 months in a year
    *
    * @param nominalRate Nominal Rate in percentage
    * @param duration Period for loan repayment
+   * @param mc precision of intermediate results
    * @return effective interest rate for each month
    */
-  private BigDecimal calculateEffectiveRate(BigDecimal nominalRate, Integer duration) {
+  private BigDecimal calculateEffectiveRate(
+      BigDecimal nominalRate, Integer duration, MathContext mc) {
     if (duration == null || nominalRate == null) {
       LOGGER.error("It will throw an exception because one the input is invalid");
       LOGGER.debug("duration:{}", duration);
@@ -96,7 +198,6 @@ public class AnnuityUtil {
               + nominalRate
               + ")");
     }
-    MathContext mc = new MathContext(18, RoundingMode.HALF_UP);
     return nominalRate.divide(BigDecimal.valueOf(100), mc).divide(BigDecimal.valueOf(12), mc);
   }
 }
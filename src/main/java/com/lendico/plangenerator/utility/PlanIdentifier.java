@@ -0,0 +1,63 @@
+package com.lendico.plangenerator.utility;
+
+import com.lendico.plangenerator.domain.PlanCriteria;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Deterministic plan id derived from the plan criteria. Same criteria always produce the same plan,
+ * so the id can be used to look up an already generated plan.
+ */
+public class PlanIdentifier {
+
+  /** Version of calculation rules. Increase it whenever generated plans change for same input. */
+  public static final String RULES_VERSION = "1";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final int ID_BYTES = 16;
+
+  private PlanIdentifier() {}
+
+  /**
+   * Get plan id for criteria. Amounts keep their scale because it is part of the generated plan.
+   *
+   * @param criteria input criteria
+   * @param defaultPrecision precision profile used when the criteria do not select one
+   * @return 32 character hex id
+   */
+  public static String of(PlanCriteria criteria, PrecisionProfile defaultPrecision) {
+    PrecisionProfile precision =
+        criteria.getPrecision() == null ? defaultPrecision : criteria.getPrecision();
+    String key =
+        RULES_VERSION
+            + '|'
+            + criteria.getDuration()
+            + '|'
+            + criteria.getNominalRate()
+            + '|'
+            + criteria.getLoanAmount()
+            + '|'
+            + (criteria.getStatDate() == null ? null : criteria.getStatDate().getTime());
+    // The effective profile is part of the key, so plans stored or cached under another default
+    // are not served. EXACT_18 is left out to keep the ids of plans generated before profiles.
+    if (precision != PrecisionProfile.EXACT_18) {
+      key += '|' + precision.name();
+    }
+    byte[] digest = sha256().digest(key.getBytes(StandardCharsets.UTF_8));
+    char[] id = new char[ID_BYTES * 2];
+    for (int i = 0; i < ID_BYTES; i++) {
+      id[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+      id[i * 2 + 1] = HEX[digest[i] & 0xf];
+    }
+    return new String(id);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+}
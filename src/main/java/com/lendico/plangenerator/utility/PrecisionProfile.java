@@ -0,0 +1,28 @@
+package com.lendico.plangenerator.utility;
+
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Precision of intermediate results of the calculation engine. Amounts of the plan are always
+ * rounded to cents, the profile only decides how many significant digits are kept before that. Math
+ * contexts are immutable and shared by all calculations.
+ */
+public enum PrecisionProfile {
+  /** 18 significant digits, half up. Reference precision of the engine. */
+  EXACT_18(new MathContext(18, RoundingMode.HALF_UP)),
+  /** IEEE 754 decimal64, 16 significant digits, half even. */
+  DECIMAL64(MathContext.DECIMAL64),
+  /** IEEE 754 decimal32, 7 significant digits, half even. Cheapest, loses cents on large loans. */
+  DECIMAL32(MathContext.DECIMAL32);
+
+  private final MathContext mathContext;
+
+  PrecisionProfile(MathContext mathContext) {
+    this.mathContext = mathContext;
+  }
+
+  public MathContext getMathContext() {
+    return mathContext;
+  }
+}
@@ -0,0 +1,150 @@
+package com.lendico.plangenerator.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.configuration.WarmUpConfiguration;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.PlanCriteriaValidator;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+/**
+ * Pushes a synthetic mix of plan criteria through deserialization, validation, calculation and
+ * serialization at startup, so the JIT has compiled the BigDecimal paths and Jackson has built its
+ * (de)serializers before real traffic arrives. The mix runs in batches until the mean latency of
+ * consecutive batches stops changing. Readiness is refused until then; runners complete before
+ * Spring Boot reports the application ready.
+ */
+public class PlanWarmUp implements ApplicationRunner {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanWarmUp.class);
+
+  private static final List<Integer> DURATIONS = Arrays.asList(1, 6, 12, 24, 36, 60, 120, 240, 360);
+  private static final List<String> RATES = Arrays.asList("0.5", "3.5", "5", "7.99", "15");
+  private static final List<String> AMOUNTS = Arrays.asList("100", "5000", "123456.78");
+
+  private final RepaymentPlanService repaymentPlanService;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final WarmUpConfiguration configuration;
+  private final List<byte[]> mix = new ArrayList<>();
+  // Consumes results so the JIT cannot drop the work.
+  private long sink;
+
+  public PlanWarmUp(
+      RepaymentPlanService repaymentPlanService,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher,
+      WarmUpConfiguration configuration) {
+    this.repaymentPlanService = repaymentPlanService;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.configuration = configuration;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+    try {
+      warmUp();
+    } catch (RuntimeException e) {
+      // Warm-up only speeds up the first requests, a cold JVM still serves them.
+      LOGGER.error("Warm-up failed, accepting traffic without it", e);
+    }
+    AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+  }
+
+  /**
+   * Run batches of the synthetic mix until latency is stable or the maximum duration is reached.
+   *
+   * @return number of batches run
+   */
+  public int warmUp() {
+    buildMix();
+    long startedAt = System.nanoTime();
+    long deadline = startedAt + configuration.getMaxDuration().toNanos();
+    double previousMean = Double.NaN;
+    int stableBatches = 0;
+    int batches = 0;
+    int index = 0;
+    while (stableBatches < configuration.getStableBatches() && System.nanoTime() < deadline) {
+      long batchStartedAt = System.nanoTime();
+      for (int i = 0; i < configuration.getBatchSize(); i++) {
+        sink += generate(mix.get(index++ % mix.size()));
+      }
+      double mean = (System.nanoTime() - batchStartedAt) / (double) configuration.getBatchSize();
+      // Comparison with the NaN of the first batch is false.
+      if (Math.abs(mean - previousMean) <= configuration.getTolerance() * previousMean) {
+        stableBatches++;
+      } else {
+        stableBatches = 0;
+      }
+      previousMean = mean;
+      batches++;
+      LOGGER.debug("Warm-up batch {}: {} us per plan", batches, mean / 1000);
+    }
+    LOGGER.info(
+        "Warm-up {} after {} batches in {} ms, {} us per plan",
+        stableBatches >= configuration.getStableBatches() ? "stabilized" : "reached max duration",
+        batches,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+        previousMean / 1000);
+    return batches;
+  }
+
+  // Same steps as a plan request, without persisting the plan.
+  private int generate(byte[] json) {
+    try {
+      PlanCriteria criteria = objectMapper.readValue(json, PlanCriteria.class);
+      PlanCriteriaValidator.INSTANCE.validate(
+          criteria, new BeanPropertyBindingResult(criteria, "planCriteria"));
+      RepaymentPlan repaymentPlan = repaymentPlanService.getRepaymentPlan(criteria);
+      repaymentPlan.setId(repaymentPlanService.getPlanId(criteria));
+      return objectMapper.writeValueAsBytes(repaymentPlan).length;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Warm-up plan cannot be generated", e);
+    }
+  }
+
+  // Criteria are kept as json, so the request deserializer is warmed up as well.
+  private void buildMix() {
+    if (!mix.isEmpty()) {
+      return;
+    }
+    Date startDate = new Date();
+    try {
+      for (Integer duration : DURATIONS) {
+        for (String rate : RATES) {
+          for (String amount : AMOUNTS) {
+            mix.add(
+                objectMapper.writeValueAsBytes(
+                    PlanCriteria.builder()
+                        .duration(duration)
+                        .nominalRate(new BigDecimal(rate))
+                        .loanAmount(new BigDecimal(amount))
+                        .statDate(startDate)
+                        .build()));
+          }
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Warm-up criteria cannot be serialized", e);
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.lendico.plangenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+
+/**
+ * Open model load test of the full stack: security filters, PlanController, service, plan store and
+ * Jackson. Requests are sent at a fixed rate regardless of response times. Latency is measured from
+ * the time a request was due, so requests queued behind slow ones count their wait. This corrects
+ * coordinated omission. The test fails when p99 latency, throughput or error SLOs are missed.
+ * Report and latency distribution go to target/load-report.md and target/load-latency.hgrm.
+ *
+ * <p>Run with {@code mvn test -Pperformance}, tune with -Dload.rate (requests per second),
+ * -Dload.duration-seconds, -Dload.warmup-seconds, -Dload.connections, -Dload.durations (duration
+ * mix as duration:weight list), -Dload.slo.p99-millis, -Dload.slo.min-throughput and
+ * -Dload.slo.max-error-ratio.
+ */
+@Tag("performance")
+@SpringBootTest(
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {
+      "plan.store.path=${user.dir}/target/load-test/plans.log",
+      "plan.jobs.spool-directory=${user.dir}/target/load-test/jobs"
+    })
+public class PlanLoadBenchmark {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanLoadBenchmark.class);
+
+  private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "200"));
+  private static final long DURATION_SECONDS = Long.getLong("load.duration-seconds", 30);
+  private static final long WARMUP_SECONDS = Long.getLong("load.warmup-seconds", 10);
+  private static final int CONNECTIONS = Integer.getInteger("load.connections", 32);
+  // Share of plan durations in months, most loans are short.
+  private static final String DURATION_MIX =
+      System.getProperty("load.durations", "12:30,24:25,36:15,60:15,120:10,360:5");
+  private static final double SLO_P99_MILLIS =
+      Double.parseDouble(System.getProperty("load.slo.p99-millis", "50"));
+  private static final double SLO_MIN_THROUGHPUT =
+      Double.parseDouble(
+          System.getProperty("load.slo.min-throughput", String.valueOf(RATE * 0.95)));
+  private static final double SLO_MAX_ERROR_RATIO =
+      Double.parseDouble(System.getProperty("load.slo.max-error-ratio", "0"));
+  private static final String AUTHORIZATION =
+      "Basic " + Base64.getEncoder().encodeToString("test:test".getBytes(StandardCharsets.UTF_8));
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @LocalServerPort int port;
+
+  /** Drive plan requests at the configured rate and check the SLOs. */
+  @Test
+  public void plansMeetSlo() throws Exception {
+    URL url = new URL("http://localhost:" + port + "/plans");
+    List<byte[]> requests = requestMix();
+    // A body the application rejects would otherwise only show up as error ratio.
+    for (byte[] request : requests) {
+      assertThat(post(url, request))
+          .as("plan for %s", new String(request, StandardCharsets.UTF_8))
+          .isTrue();
+    }
+    run(url, requests, WARMUP_SECONDS, new ConcurrentHistogram(3));
+
+    Histogram latencies = new ConcurrentHistogram(3);
+    LoadResult result = run(url, requests, DURATION_SECONDS, latencies);
+    double throughput = result.succeeded * 1e9 / result.elapsedNanos;
+    double errorRatio = (double) result.failed / result.sent;
+    double p99Millis = latencies.getValueAtPercentile(99) / 1000.0;
+
+    StringBuilder report = new StringBuilder();
+    report.append("# Load test report\n\n");
+    report.append(
+        String.format(
+            "%.0f requests/s for %d s over %d connections, durations %s%n%n",
+            RATE, DURATION_SECONDS, CONNECTIONS, DURATION_MIX));
+    report.append("| Metric | Value | SLO |\n|---|---|---|\n");
+    report.append(
+        String.format("| Throughput | %.1f/s | >= %.1f/s |%n", throughput, SLO_MIN_THROUGHPUT));
+    report.append(
+        String.format(
+            "| Errors | %d (%.4f) | <= %.4f |%n", result.failed, errorRatio, SLO_MAX_ERROR_RATIO));
+    for (double percentile : new double[] {50, 90, 99, 99.9}) {
+      report.append(
+          String.format(
+              "| p%s | %.2f ms | %s |%n",
+              percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile),
+              latencies.getValueAtPercentile(percentile) / 1000.0,
+              percentile == 99 ? String.format("<= %.2f ms", SLO_P99_MILLIS) : ""));
+    }
+    report.append(String.format("| max | %.2f ms | |%n", latencies.getMaxValue() / 1000.0));
+    Path reportFile = Paths.get("target", "load-report.md");
+    Files.createDirectories(reportFile.getParent());
+    Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8));
+    try (PrintStream distribution =
+        new PrintStream(Files.newOutputStream(Paths.get("target", "load-latency.hgrm")))) {
+      // Recorded in microseconds, printed in milliseconds.
+      latencies.outputPercentileDistribution(distribution, 1000.0);
+    }
+    LOGGER.info(
+        "Throughput {}/s, p99 {} ms, {} errors, report in {}",
+        String.format("%.1f", throughput),
+        String.format("%.2f", p99Millis),
+        result.failed,
+        reportFile);
+
+    assertThat(errorRatio).as("error ratio").isLessThanOrEqualTo(SLO_MAX_ERROR_RATIO);
+    assertThat(throughput).as("throughput").isGreaterThanOrEqualTo(SLO_MIN_THROUGHPUT);
+    assertThat(p99Millis).as("p99 latency in ms").isLessThanOrEqualTo(SLO_P99_MILLIS);
+  }
+
+  // Open model: request i is due at start + i / rate, whether earlier responses arrived or not.
+  private LoadResult run(URL url, List<byte[]> requests, long seconds, Histogram latencies)
+      throws InterruptedException {
+    long total = (long) (RATE * seconds);
+    long intervalNanos = (long) (1e9 / RATE);
+    AtomicLong next = new AtomicLong();
+    LongAdder failed = new LongAdder();
+    ExecutorService connections = Executors.newFixedThreadPool(CONNECTIONS);
+    long startedAt = System.nanoTime();
+    for (int connection = 0; connection < CONNECTIONS; connection++) {
+      connections.execute(
+          () -> {
+            for (long i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+              long dueAt = startedAt + i * intervalNanos;
+              while (dueAt - System.nanoTime() > 0) {
+                LockSupport.parkNanos(dueAt - System.nanoTime());
+              }
+              boolean succeeded = post(url, requests.get((int) (i % requests.size())));
+              long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueAt);
+              if (succeeded) {
+                latencies.recordValue(latencyMicros);
+              } else {
+                failed.increment();
+              }
+            }
+          });
+    }
+    connections.shutdown();
+    assertThat(connections.awaitTermination(seconds + 120, TimeUnit.SECONDS))
+        .as("load finished")
+        .isTrue();
+    return new LoadResult(total, total - failed.sum(), failed.sum(), System.nanoTime() - startedAt);
+  }
+
+  // Request bodies in proportion to the duration mix, shuffled with a fixed seed.
+  private List<byte[]> requestMix() throws IOException {
+    Random random = new Random(42);
+    List<byte[]> requests = new ArrayList<>();
+    for (String share : DURATION_MIX.split(",")) {
+      String[] durationAndWeight = share.trim().split(":");
+      int duration = Integer.parseInt(durationAndWeight[0]);
+      int weight = Integer.parseInt(durationAndWeight[1]);
+      for (int i = 0; i < weight; i++) {
+        requests.add(
+            mapper.writeValueAsBytes(
+                PlanCriteria.builder()
+                    .duration(duration)
+                    .nominalRate(BigDecimal.valueOf(100 + random.nextInt(900), 2))
+                    .loanAmount(BigDecimal.valueOf(1000 + random.nextInt(99_000)))
+                    .statDate(new Date())
+                    .build()));
+      }
+    }
+    Collections.shuffle(requests, random);
+    return requests;
+  }
+
+  // Response is read completely, so the connection is kept alive for the next request.
+  private static boolean post(URL url, byte[] body) {
+    try {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      connection.setRequestProperty("Authorization", AUTHORIZATION);
+      try (OutputStream request = connection.getOutputStream()) {
+        request.write(body);
+      }
+      int status = connection.getResponseCode();
+      try (InputStream response =
+          status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+        if (response != null) {
+          byte[] buffer = new byte[8192];
+          while (response.read(buffer) >= 0) {
+            // drain
+          }
+        }
+      }
+      return status == HttpURLConnection.HTTP_OK;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Counts of one load run. */
+  private static final class LoadResult {
+    private final long sent;
+    private final long succeeded;
+    private final long failed;
+    private final long elapsedNanos;
+
+    private LoadResult(long sent, long succeeded, long failed, long elapsedNanos) {
+      this.sent = sent;
+      this.succeeded = succeeded;
+      this.failed = failed;
+      this.elapsedNanos = elapsedNanos;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.lendico.plangenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Time from launching the JVM to the first successful plan response, per Spring profile. Every
+ * profile starts in its own JVM, output goes to target/startup-&lt;profile&gt;.log. Extra JVM
+ * arguments, e.g. {@code -XX:SharedArchiveFile=target/app-cds.jsa}, are passed with
+ * -Dstartup.jvm-args. Times are reported to target/startup-report.md. Run with {@code mvn test
+ * -Pperformance}.
+ */
+@Tag("performance")
+public class StartupTimeBenchmark {
+
+  public static final Logger LOGGER = LogManager.getLogger(StartupTimeBenchmark.class);
+
+  private static final List<String> PROFILES =
+      Arrays.asList(System.getProperty("startup.profiles", "default,fast").split(","));
+  private static final String JVM_ARGS = System.getProperty("startup.jvm-args", "");
+  private static final long MAX_MILLIS = Long.getLong("startup.max-millis", 30_000);
+  private static final String AUTHORIZATION =
+      "Basic " + Base64.getEncoder().encodeToString("test:test".getBytes(StandardCharsets.UTF_8));
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @TempDir Path dataDirectory;
+
+  /** Start the application with every profile and measure time to the first plan. */
+  @Test
+  public void timeToFirstPlan() throws Exception {
+    byte[] criteria =
+        mapper.writeValueAsBytes(
+            PlanCriteria.builder()
+                .duration(12)
+                .nominalRate(BigDecimal.valueOf(5))
+                .loanAmount(BigDecimal.valueOf(5000))
+                .statDate(new Date())
+                .build());
+    Map<String, Long> millis = new LinkedHashMap<>();
+    for (String profile : PROFILES) {
+      millis.put(profile, timeToFirstPlan(profile.trim(), criteria));
+    }
+    StringBuilder report =
+        new StringBuilder(
+            String.format(
+                "# Startup benchmark%n%nJVM arguments: `%s`%n%n| Profile | First plan ms |%n|---|---|%n",
+                JVM_ARGS));
+    millis.forEach((profile, time) -> report.append(String.format("| %s | %d |%n", profile, time)));
+    Path reportFile = Paths.get("target", "startup-report.md");
+    Files.createDirectories(reportFile.getParent());
+    Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8));
+    LOGGER.info("Time to first plan {} ms, report in {}", millis, reportFile);
+  }
+
+  private long timeToFirstPlan(String profile, byte[] criteria) throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    if (!JVM_ARGS.trim().isEmpty()) {
+      command.addAll(Arrays.asList(JVM_ARGS.trim().split("\\s+")));
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(PlanGeneratorApplication.class.getName());
+    command.add("--spring.profiles.active=" + profile);
+    command.add("--server.port=" + port);
+    command.add("--plan.store.path=" + dataDirectory.resolve(profile + "-plans.log"));
+    command.add("--plan.jobs.spool-directory=" + dataDirectory.resolve(profile + "-jobs"));
+
+    long startedAt = System.nanoTime();
+    Process process =
+        new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(Paths.get("target", "startup-" + profile + ".log").toFile())
+            .start();
+    try {
+      URL url = new URL("http://localhost:" + port + "/plans");
+      int status;
+      while ((status = post(url, criteria)) != HttpURLConnection.HTTP_OK) {
+        // Only a server that is not listening yet is retried, a rejected body fails right away.
+        assertThat(status).as("response status with profile %s", profile).isEqualTo(-1);
+        assertThat(process.isAlive()).as("application with profile %s exited", profile).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+            .as("time to first plan with profile %s", profile)
+            .isLessThanOrEqualTo(MAX_MILLIS);
+        Thread.sleep(10);
+      }
+      return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    } finally {
+      process.destroy();
+      process.waitFor(10, TimeUnit.SECONDS);
+    }
+  }
+
+  // Response status, -1 until the application listens.
+  private static int post(URL url, byte[] criteria) {
+    try {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      connection.setRequestProperty("Authorization", AUTHORIZATION);
+      try (OutputStream body = connection.getOutputStream()) {
+        body.write(criteria);
+      }
+      return connection.getResponseCode();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+}
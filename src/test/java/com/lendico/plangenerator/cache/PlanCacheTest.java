@@ -0,0 +1,165 @@
+package com.lendico.plangenerator.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.CachingRepaymentPlanService;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Two tier plan cache tests against the stand-in server */
+public class PlanCacheTest {
+
+  private final RepaymentPlanService repaymentPlanService = new RepaymentPlanServiceImpl();
+  private PlanCacheServer server;
+  private PlanCacheClient client;
+
+  @BeforeEach
+  public void startServer() throws IOException {
+    server = new PlanCacheServer(0, 100);
+    server.start();
+    client = new PlanCacheClient("localhost", server.getPort(), 1000, 2);
+  }
+
+  @AfterEach
+  public void stopServer() {
+    client.close();
+    server.close();
+  }
+
+  /** Test encoded plan decodes to an equal plan and is smaller than json. */
+  @Test
+  public void testCodec() throws IOException {
+    RepaymentPlan plan = repaymentPlanService.getRepaymentPlan(criteria(120));
+    plan.setId("abc");
+    byte[] encoded = PlanCodec.encode(plan);
+    assertThat(PlanCodec.decode(encoded)).isEqualTo(plan);
+    assertThat(encoded.length * 3).isLessThan(new ObjectMapper().writeValueAsBytes(plan).length);
+    assertThat(PlanCodec.decode(PlanCodec.encode(new RepaymentPlan())))
+        .isEqualTo(new RepaymentPlan());
+  }
+
+  /** Test plans are shared through the remote tier and invalidated on both tiers. */
+  @Test
+  public void testSharedTier() {
+    PlanCache nodeA = new TieredPlanCache(new NearPlanCache(10, 60_000), remote());
+    PlanCache nodeB = new TieredPlanCache(new NearPlanCache(10, 60_000), remote());
+    RepaymentPlan plan = repaymentPlanService.getRepaymentPlan(criteria(12));
+
+    nodeA.put("key", plan);
+    assertThat(nodeB.get("key")).isEqualTo(plan);
+    assertThat(server.size()).isEqualTo(1);
+
+    nodeB.invalidate("key");
+    assertThat(server.size()).isZero();
+    assertThat(nodeB.get("key")).isNull();
+  }
+
+  /** Test unavailable remote tier behaves like a miss. */
+  @Test
+  public void testRemoteUnavailable() {
+    server.close();
+    PlanCache cache = new TieredPlanCache(new NearPlanCache(10, 60_000), remote());
+    RepaymentPlan plan = repaymentPlanService.getRepaymentPlan(criteria(12));
+    cache.put("key", plan);
+    assertThat(cache.get("key")).isEqualTo(plan);
+    assertThat(cache.get("other")).isNull();
+  }
+
+  /** Test remote tier is skipped after consecutive failures and tried again later. */
+  @Test
+  public void testCircuitBreaker() throws IOException, InterruptedException {
+    RemotePlanCache remote = new RemotePlanCache(client, 2, 200);
+    RepaymentPlan plan = repaymentPlanService.getRepaymentPlan(criteria(12));
+    int port = server.getPort();
+    server.close();
+    assertThat(remote.get("key")).isNull();
+    assertThat(remote.isOpen()).isFalse();
+    assertThat(remote.get("key")).isNull();
+    assertThat(remote.isOpen()).isTrue();
+
+    server = new PlanCacheServer(port, 100);
+    server.start();
+    try (PlanCacheClient other = new PlanCacheClient("localhost", port, 1000, 1)) {
+      other.put("key", PlanCodec.encode(plan));
+    }
+    assertThat(remote.get("key")).isNull();
+    Thread.sleep(250);
+    assertThat(remote.get("key")).isEqualTo(plan);
+    assertThat(remote.isOpen()).isFalse();
+  }
+
+  /** Test cached plans are copies, changes of one request do not reach the cache. */
+  @Test
+  public void testCachedPlanIsCopy() {
+    RepaymentPlanService service =
+        new CachingRepaymentPlanService(repaymentPlanService, new NearPlanCache(10, 60_000));
+    PlanCriteria criteria = criteria(12);
+    RepaymentPlan first = service.getRepaymentPlan(criteria);
+    first.setId("changed");
+    first.getBorrowerPayments().clear();
+    RepaymentPlan second = service.getRepaymentPlan(criteria);
+    assertThat(second.getId()).isEqualTo(repaymentPlanService.getPlanId(criteria));
+    assertThat(second.getBorrowerPayments()).hasSize(12);
+    assertThat(service.getRepaymentPlan(criteria)).isNotSameAs(second);
+  }
+
+  /** Test near cache evicts least recently used and expired entries. */
+  @Test
+  public void testNearCache() throws InterruptedException {
+    RepaymentPlan plan = new RepaymentPlan();
+    PlanCache cache = new NearPlanCache(2, 60_000);
+    cache.put("a", plan);
+    cache.put("b", plan);
+    cache.get("a");
+    cache.put("c", plan);
+    assertThat(cache.get("a")).isEqualTo(plan);
+    assertThat(cache.get("b")).isNull();
+
+    PlanCache expiring = new NearPlanCache(2, 1);
+    expiring.put("a", plan);
+    Thread.sleep(5);
+    assertThat(expiring.get("a")).isNull();
+  }
+
+  /** Test caching service generates each plan once and returns it with its id. */
+  @Test
+  public void testCachingService() {
+    AtomicInteger generated = new AtomicInteger();
+    RepaymentPlanService service =
+        new CachingRepaymentPlanService(
+            criteria -> {
+              generated.incrementAndGet();
+              return repaymentPlanService.getRepaymentPlan(criteria);
+            },
+            new TieredPlanCache(new NearPlanCache(10, 60_000), remote()));
+    PlanCriteria criteria = criteria(24);
+    RepaymentPlan first = service.getRepaymentPlan(criteria);
+    RepaymentPlan second = service.getRepaymentPlan(criteria);
+    assertThat(second).isEqualTo(first);
+    assertThat(second.getId()).isEqualTo(repaymentPlanService.getPlanId(criteria));
+    assertThat(generated).hasValue(1);
+  }
+
+  private PlanCache remote() {
+    return new RemotePlanCache(client, 2, 60_000);
+  }
+
+  private static PlanCriteria criteria(int duration) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .loanAmount(new BigDecimal("5000.00"))
+        .nominalRate(BigDecimal.valueOf(5))
+        .statDate(new Date())
+        .build();
+  }
+}
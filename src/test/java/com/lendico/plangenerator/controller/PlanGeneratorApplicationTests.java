@@ -1,9 +1,15 @@
 package com.lendico.plangenerator.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,10 +17,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lendico.plangenerator.domain.Payment;
 import com.lendico.plangenerator.domain.PlanCriteria;
 import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.PlanCostPolicy;
+import com.lendico.plangenerator.service.PlanStore;
 import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.timing.StageTimingFilter;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -28,6 +38,8 @@ import org.springframework.util.Base64Utils;
 public class PlanGeneratorApplicationTests {
 
   @MockBean RepaymentPlanService service;
+  @MockBean PlanStore planStore;
+  @MockBean PlanCostPolicy planCostPolicy;
   private final ObjectMapper mapper = new ObjectMapper();
   @Autowired private MockMvc mockMvc;
 
@@ -72,6 +84,8 @@ public class PlanGeneratorApplicationTests {
               String json = mvcResult.getResponse().getContentAsString();
               RepaymentPlan actualObject = mapper.readValue(json, RepaymentPlan.class);
               assertThat(repaymentPlan.getTotal()).isEqualTo(actualObject.getTotal());
+              // Credentials come with every request, no session is kept.
+              assertThat(mvcResult.getRequest().getSession(false)).isNull();
             });
   }
 
@@ -159,4 +173,133 @@ public class PlanGeneratorApplicationTests {
                   .isEqualToIgnoringCase(node.findValue("errors").get(0).asText());
             });
   }
+
+  /**
+   * Check stored plan is returned as it was stored.
+   *
+   * @throws Exception
+   */
+  @Test
+  void getPlanByIdShouldReturnStoredPlan() throws Exception {
+    byte[] storedPlan = "{\"id\":\"abc\",\"borrowerPayments\":[],\"total\":0}".getBytes();
+    when(planStore.find("abc")).thenReturn(Optional.of(storedPlan));
+    mockMvc
+        .perform(
+            get("/plans/abc")
+                .header(
+                    HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64Utils.encodeToString("test:test".getBytes())))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(storedPlan));
+  }
+
+  /**
+   * Check unknown plan id returns not found(404) status and requires authorization.
+   *
+   * @throws Exception
+   */
+  @Test
+  void whenPlanNotStoredThenReturns404() throws Exception {
+    mockMvc
+        .perform(
+            get("/plans/unknown")
+                .header(
+                    HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64Utils.encodeToString("test:test".getBytes())))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/plans/unknown")).andExpect(status().isUnauthorized());
+  }
+
+  /**
+   * Check stage timings are returned in Server-Timing header only when requested.
+   *
+   * @throws Exception
+   */
+  @Test
+  void whenTimingRequestedThenReturnsServerTiming() throws Exception {
+    PlanCriteria criteria =
+        PlanCriteria.builder()
+            .duration(10)
+            .loanAmount(BigDecimal.valueOf(2000))
+            .nominalRate(BigDecimal.valueOf(5))
+            .statDate(new Date())
+            .build();
+    when(service.getRepaymentPlan(criteria))
+        .thenReturn(RepaymentPlan.builder().borrowerPayments(Arrays.asList()).total(0L).build());
+    mockMvc
+        .perform(
+            post("/plans")
+                .header(
+                    HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64Utils.encodeToString("test:test".getBytes()))
+                .header(StageTimingFilter.TIMING_REQUEST_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(criteria)))
+        .andExpect(status().isOk())
+        .andExpect(
+            header()
+                .string(
+                    StageTimingFilter.SERVER_TIMING_HEADER,
+                    matchesPattern(
+                        "auth;dur=[0-9.]+, deserialize;dur=[0-9.]+, check;dur=[0-9.]+, "
+                            + "serialize;dur=[0-9.]+, total;dur=[0-9.]+")))
+        .andExpect(content().json("{\"total\":0}"));
+    mockMvc
+        .perform(
+            post("/plans")
+                .header(
+                    HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64Utils.encodeToString("test:test".getBytes()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(criteria)))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(StageTimingFilter.SERVER_TIMING_HEADER));
+    // Only plan generation is timed, other responses are not buffered.
+    when(planStore.find("abc")).thenReturn(Optional.of("{}".getBytes()));
+    mockMvc
+        .perform(
+            get("/plans/abc")
+                .header(
+                    HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64Utils.encodeToString("test:test".getBytes()))
+                .header(StageTimingFilter.TIMING_REQUEST_HEADER, "true"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(StageTimingFilter.SERVER_TIMING_HEADER));
+  }
+
+  /**
+   * Check plans exceeding the cost limits are rejected with bad request(400) status before
+   * generation.
+   *
+   * @throws Exception
+   */
+  @Test
+  void whenCostExceededThenReturns400AndErrorResult() throws Exception {
+    PlanCriteria criteria =
+        PlanCriteria.builder()
+            .duration(5000)
+            .loanAmount(BigDecimal.valueOf(2000))
+            .nominalRate(BigDecimal.valueOf(5))
+            .statDate(new Date())
+            .build();
+    when(planCostPolicy.check(criteria))
+        .thenReturn(Arrays.asList("Duration cannot exceed 1200 months"));
+    mockMvc
+        .perform(
+            post("/plans")
+                .header(
+                    HttpHeaders.AUTHORIZATION,
+                    "Basic " + Base64Utils.encodeToString("test:test".getBytes()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(criteria)))
+        .andExpect(status().isBadRequest())
+        .andExpect(
+            mvcResult -> {
+              JsonNode node =
+                  mapper.readValue(mvcResult.getResponse().getContentAsString(), JsonNode.class);
+              assertThat(node.findValue("errors").get(0).asText())
+                  .isEqualTo("Duration cannot exceed 1200 months");
+            });
+    verify(service, never()).getRepaymentPlan(criteria);
+  }
 }
@@ -0,0 +1,66 @@
+package com.lendico.plangenerator.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lendico.plangenerator.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Request deadline filter tests */
+public class RequestDeadlineFilterTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RequestDeadlineFilter filter = filter();
+
+  /** Test plan generation is aborted once its deadline has passed and counted. */
+  @Test
+  public void testPlanGenerationDeadline() {
+    Assertions.assertThrows(
+        DeadlineExceededException.class, () -> checkDeadline(request("POST", "/plans")));
+    assertThat(meterRegistry.counter(RequestDeadlineFilter.METRIC).count()).isEqualTo(1);
+  }
+
+  /** Test job and stored plan requests get no deadline. */
+  @Test
+  public void testOtherRequestsWithoutDeadline() throws Exception {
+    checkDeadline(request("POST", "/plans/jobs"));
+    checkDeadline(request("GET", "/plans/jobs/abc/result"));
+    checkDeadline(request("GET", "/plans/abc"));
+    assertThat(meterRegistry.counter(RequestDeadlineFilter.METRIC).count()).isZero();
+  }
+
+  private void checkDeadline(MockHttpServletRequest request) throws Exception {
+    filter.doFilter(
+        request,
+        new MockHttpServletResponse(),
+        (servletRequest, servletResponse) -> {
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          RequestDeadline.check();
+        });
+  }
+
+  private static MockHttpServletRequest request(String method, String uri) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+    request.addHeader(RequestDeadlineFilter.TIMEOUT_HEADER, "0");
+    return request;
+  }
+
+  private RequestDeadlineFilter filter() {
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("meterRegistry", meterRegistry);
+    return new RequestDeadlineFilter(
+        beanFactory.getBeanProvider(MeterRegistry.class),
+        Duration.ofSeconds(2),
+        Duration.ofSeconds(10));
+  }
+}
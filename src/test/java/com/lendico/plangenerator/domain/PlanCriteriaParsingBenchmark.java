@@ -0,0 +1,107 @@
+package com.lendico.plangenerator.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+/**
+ * Compares reflective Jackson binding plus Hibernate Validator with the streaming deserializer plus
+ * precompiled validator for plan criteria. Timings are reported to target/parsing-benchmark.md, not
+ * asserted, as they depend on the machine. Run with {@code mvn test -Pperformance}.
+ */
+@Tag("performance")
+public class PlanCriteriaParsingBenchmark {
+
+  public static final Logger LOGGER = LogManager.getLogger(PlanCriteriaParsingBenchmark.class);
+
+  private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup", 200_000);
+  private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500_000);
+
+  // Restores reflective builder binding of PlanCriteria for the baseline.
+  @JsonDeserialize(builder = PlanCriteria.PlanCriteriaBuilder.class)
+  private abstract static class ReflectivePlanCriteria {}
+
+  @JsonPOJOBuilder(withPrefix = "")
+  private abstract static class ReflectivePlanCriteriaBuilder {}
+
+  private final ObjectMapper fastMapper = new ObjectMapper();
+
+  private final ObjectMapper reflectiveMapper =
+      new ObjectMapper()
+          .addMixIn(PlanCriteria.class, ReflectivePlanCriteria.class)
+          .addMixIn(PlanCriteria.PlanCriteriaBuilder.class, ReflectivePlanCriteriaBuilder.class);
+
+  private final Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  /** Measure both parsing and validation paths on the same request body. */
+  @Test
+  public void benchmarkParsingAndValidation() throws IOException {
+    byte[] body =
+        fastMapper.writeValueAsBytes(
+            PlanCriteria.builder()
+                .duration(24)
+                .nominalRate(new BigDecimal("5.0"))
+                .loanAmount(new BigDecimal("5000"))
+                .statDate(new Date())
+                .build());
+    assertThat(reflectiveMapper.readValue(body, PlanCriteria.class))
+        .isEqualTo(fastMapper.readValue(body, PlanCriteria.class));
+
+    run(body, WARMUP_ITERATIONS, true);
+    run(body, WARMUP_ITERATIONS, false);
+    double reflectiveNanos = run(body, ITERATIONS, true);
+    double fastNanos = run(body, ITERATIONS, false);
+
+    String report =
+        String.format(
+            "# PlanCriteria parsing benchmark%n%n"
+                + "| Path | ns/op |%n|---|---|%n| reflective | %.0f |%n| fast | %.0f |%n%n"
+                + "Speedup %.2fx over %d iterations%n",
+            reflectiveNanos, fastNanos, reflectiveNanos / fastNanos, ITERATIONS);
+    Path reportFile = Paths.get("target", "parsing-benchmark.md");
+    Files.createDirectories(reportFile.getParent());
+    Files.write(reportFile, report.getBytes(StandardCharsets.UTF_8));
+    LOGGER.info(
+        "PlanCriteria parse+validate: reflective {} ns/op, fast {} ns/op, report in {}",
+        Math.round(reflectiveNanos),
+        Math.round(fastNanos),
+        reportFile);
+  }
+
+  // Returns average nanoseconds per request.
+  private double run(byte[] body, int iterations, boolean reflective) throws IOException {
+    int errors = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      if (reflective) {
+        PlanCriteria criteria = reflectiveMapper.readValue(body, PlanCriteria.class);
+        errors += beanValidator.validate(criteria).size();
+      } else {
+        PlanCriteria criteria = fastMapper.readValue(body, PlanCriteria.class);
+        Errors result = new BeanPropertyBindingResult(criteria, "planCriteria");
+        PlanCriteriaValidator.INSTANCE.validate(criteria, result);
+        errors += result.getErrorCount();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    assertThat(errors).isZero();
+    return (double) elapsed / iterations;
+  }
+}
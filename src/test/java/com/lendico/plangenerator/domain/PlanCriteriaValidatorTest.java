@@ -0,0 +1,125 @@
+package com.lendico.plangenerator.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.lendico.plangenerator.utility.PrecisionProfile;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/** Plan criteria parsing and validation tests */
+public class PlanCriteriaValidatorTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private final Validator beanValidator =
+      new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator());
+
+  /** Test precompiled validator reports the same errors as bean validation constraints. */
+  @Test
+  public void testSameErrorsAsBeanValidation() {
+    List<PlanCriteria> criteriaList =
+        Arrays.asList(
+            PlanCriteria.builder().build(),
+            criteria(12, BigDecimal.valueOf(5), BigDecimal.valueOf(5000), new Date()),
+            criteria(0, BigDecimal.valueOf(5), BigDecimal.valueOf(5000), new Date()),
+            criteria(-3, new BigDecimal("-0.01"), new BigDecimal("-5000"), null),
+            criteria(1, BigDecimal.ZERO, BigDecimal.ZERO, new Date()),
+            criteria(null, null, BigDecimal.valueOf(5000), new Date()));
+    for (PlanCriteria criteria : criteriaList) {
+      assertThat(errors(PlanCriteriaValidator.INSTANCE, criteria))
+          .isEqualTo(errors(beanValidator, criteria));
+    }
+  }
+
+  /** Test serialized criteria are read back unchanged. */
+  @Test
+  public void testRoundTrip() throws IOException {
+    PlanCriteria criteria =
+        criteria(24, new BigDecimal("5.25"), new BigDecimal("5000.00"), new Date());
+    assertThat(mapper.readValue(mapper.writeValueAsString(criteria), PlanCriteria.class))
+        .isEqualTo(criteria);
+    assertThat(mapper.readValue("{}", PlanCriteria.class))
+        .isEqualTo(PlanCriteria.builder().build());
+  }
+
+  /** Test criteria without precision profile, serialized with explicit null, are read back. */
+  @Test
+  public void testRoundTripWithoutPrecision() throws IOException {
+    PlanCriteria criteria =
+        criteria(12, BigDecimal.valueOf(5), BigDecimal.valueOf(5000), new Date());
+    String json = mapper.writeValueAsString(criteria);
+    assertThat(json).contains("\"precision\":null");
+    assertThat(mapper.readValue(json, PlanCriteria.class)).isEqualTo(criteria);
+    assertThat(mapper.readValue("{\"precision\":\"DECIMAL64\"}", PlanCriteria.class).getPrecision())
+        .isEqualTo(PrecisionProfile.DECIMAL64);
+  }
+
+  /** Test values in other shapes are coerced like standard Jackson binding does. */
+  @Test
+  public void testCoercion() throws IOException {
+    PlanCriteria criteria =
+        mapper.readValue(
+            "{\"duration\":\"12\",\"nominalRate\":\"5.0\",\"loanAmount\":5000,"
+                + "\"statDate\":\"2020-06-01T10:00:00.000+0200\"}",
+            PlanCriteria.class);
+    assertThat(criteria.getDuration()).isEqualTo(12);
+    assertThat(criteria.getNominalRate()).isEqualTo(new BigDecimal("5.0"));
+    assertThat(criteria.getLoanAmount()).isEqualTo(BigDecimal.valueOf(5000));
+    assertThat(criteria.getStatDate()).isEqualTo(new Date(1590998400000L));
+  }
+
+  /** Test dates accepted by the lenient @JsonFormat parsing before are still accepted. */
+  @Test
+  public void testLenientDates() throws IOException {
+    assertThat(startDate("2020-06-01T10:00:00.5+0200")).isEqualTo(new Date(1590998400005L));
+    assertThat(startDate("2020-6-1T9:5:0.000+0200")).isEqualTo(new Date(1590995100000L));
+    assertThat(startDate("2020-06-01T10:00:00.000GMT+02:00")).isEqualTo(new Date(1590998400000L));
+    assertThat(startDate("2020-02-30T10:00:00.000+0200")).isEqualTo(new Date(1583049600000L));
+    assertThat(startDate("2020-06-01T10:00:00.000+0200[Europe/Berlin]"))
+        .isEqualTo(new Date(1590998400000L));
+  }
+
+  /** Test malformed date is rejected. */
+  @Test
+  public void testInvalidDate() {
+    Assertions.assertThrows(InvalidFormatException.class, () -> startDate("01.06.2020"));
+    Assertions.assertThrows(
+        InvalidFormatException.class, () -> startDate("2020-06-01T10:00:00+0200"));
+  }
+
+  private Date startDate(String text) throws IOException {
+    return mapper.readValue("{\"statDate\":\"" + text + "\"}", PlanCriteria.class).getStatDate();
+  }
+
+  private static Set<String> errors(Validator validator, PlanCriteria criteria) {
+    Errors errors = new BeanPropertyBindingResult(criteria, "planCriteria");
+    validator.validate(criteria, errors);
+    return errors.getFieldErrors().stream()
+        .map(error -> error.getField() + ":" + error.getDefaultMessage())
+        .collect(Collectors.toSet());
+  }
+
+  static PlanCriteria criteria(
+      Integer duration, BigDecimal nominalRate, BigDecimal loanAmount, Date startDate) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .nominalRate(nominalRate)
+        .loanAmount(loanAmount)
+        .statDate(startDate)
+        .build();
+  }
+}
@@ -0,0 +1,333 @@
+package com.lendico.plangenerator.service;
+
+import com.lendico.plangenerator.domain.Payment;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+/**
+ * Property based differential check of alternative repayment services against the reference
+ * implementation. Random criteria are generated in parallel, each case from its own seed, so any
+ * case can be reproduced from the run seed and its index. Plans must match the reference to the
+ * cent, or both services must fail with the same exception. Mismatching criteria are shrunk to a
+ * simpler case that still mismatches.
+ */
+class DifferentialHarness {
+
+  private static final int KEPT_MISMATCHES = 5;
+  private static final long MIN_DATE = 946684800000L; // 2000-01-01
+  private static final long MAX_DATE = 2208988800000L; // 2040-01-01
+  private static final Date SIMPLE_DATE = new Date(1577836800000L); // 2020-01-01
+
+  private final RepaymentPlanService reference;
+  private final List<BigDecimal> catalogueRates;
+  private final List<Integer> catalogueDurations;
+  private final Map<String, Candidate> candidates = new LinkedHashMap<>();
+
+  /**
+   * @param reference service every candidate is compared to
+   * @param catalogueRates rates generated more often, e.g. those of the amortization table
+   * @param catalogueDurations durations generated more often
+   */
+  DifferentialHarness(
+      RepaymentPlanService reference,
+      List<BigDecimal> catalogueRates,
+      List<Integer> catalogueDurations) {
+    this.reference = reference;
+    this.catalogueRates = catalogueRates;
+    this.catalogueDurations = catalogueDurations;
+  }
+
+  /**
+   * @param name name in the report
+   * @param service alternative implementation
+   * @param mustMatch whether a mismatch fails verification, or is only reported
+   * @return this harness
+   */
+  DifferentialHarness candidate(String name, RepaymentPlanService service, boolean mustMatch) {
+    candidates.put(name, new Candidate(name, service, mustMatch));
+    return this;
+  }
+
+  /**
+   * Compare every candidate to the reference on the same random cases.
+   *
+   * @param cases number of random criteria
+   * @param seed seed of the run
+   * @return results per candidate
+   */
+  List<Result> run(long cases, long seed) {
+    LongAdder referenceNanos = new LongAdder();
+    LongStream.range(0, cases)
+        .parallel()
+        .forEach(
+            index -> {
+              PlanCriteria criteria = generate(new SplittableRandom(seed + index));
+              long startedAt = System.nanoTime();
+              Outcome expected = Outcome.of(reference, criteria);
+              referenceNanos.add(System.nanoTime() - startedAt);
+              for (Candidate candidate : candidates.values()) {
+                candidate.compare(expected, criteria);
+              }
+            });
+    List<Result> results = new ArrayList<>();
+    for (Candidate candidate : candidates.values()) {
+      List<PlanCriteria> shrunk = new ArrayList<>();
+      for (PlanCriteria mismatch : candidate.mismatches) {
+        shrunk.add(shrink(candidate.service, mismatch));
+      }
+      results.add(
+          new Result(
+              candidate.name,
+              candidate.mustMatch,
+              cases,
+              candidate.mismatchCount.sum(),
+              referenceNanos.sum(),
+              candidate.nanos.sum(),
+              shrunk));
+    }
+    return results;
+  }
+
+  /**
+   * Simplify mismatching criteria one step at a time while the candidate keeps mismatching. Every
+   * step reduces duration, digits or magnitude of amount and rate, or resets the start date, so
+   * shrinking terminates.
+   *
+   * @param candidate service mismatching the reference
+   * @param criteria mismatching criteria
+   * @return simplest criteria found that still mismatches
+   */
+  PlanCriteria shrink(RepaymentPlanService candidate, PlanCriteria criteria) {
+    PlanCriteria current = criteria;
+    boolean shrunk = true;
+    while (shrunk) {
+      shrunk = false;
+      for (PlanCriteria simpler : simplifications(current)) {
+        if (!Outcome.of(reference, simpler).matches(Outcome.of(candidate, simpler))) {
+          current = simpler;
+          shrunk = true;
+          break;
+        }
+      }
+    }
+    return current;
+  }
+
+  // Mostly standard loans, with catalogue products, long durations and edge cases mixed in.
+  private PlanCriteria generate(SplittableRandom random) {
+    int duration;
+    int kind = random.nextInt(10);
+    if (kind < 2) {
+      duration = catalogueDurations.get(random.nextInt(catalogueDurations.size()));
+    } else if (kind < 3) {
+      duration = random.nextInt(361, 1201);
+    } else {
+      duration = random.nextInt(1, 361);
+    }
+    BigDecimal rate;
+    kind = random.nextInt(100);
+    if (kind < 40) {
+      // Same rate in another representation, e.g. 5.00 instead of 5, must hit the table too.
+      BigDecimal catalogueRate = catalogueRates.get(random.nextInt(catalogueRates.size()));
+      rate = catalogueRate.setScale(Math.max(catalogueRate.scale(), random.nextInt(5)));
+    } else if (kind < 41) {
+      rate = BigDecimal.ZERO;
+    } else {
+      // Up to 30 percent with up to four decimals.
+      int scale = random.nextInt(5);
+      rate = BigDecimal.valueOf(random.nextLong(1, 30 * (long) Math.pow(10, scale) + 1), scale);
+    }
+    BigDecimal amount =
+        random.nextBoolean()
+            ? BigDecimal.valueOf(random.nextLong(100, 1_000_000_001), 2)
+            : BigDecimal.valueOf(random.nextLong(1, 10_000_001));
+    return PlanCriteria.builder()
+        .duration(duration)
+        .nominalRate(rate)
+        .loanAmount(amount)
+        .statDate(new Date(random.nextLong(MIN_DATE, MAX_DATE)))
+        .build();
+  }
+
+  private static List<PlanCriteria> simplifications(PlanCriteria criteria) {
+    List<PlanCriteria> simplifications = new ArrayList<>();
+    BigDecimal rate = criteria.getNominalRate();
+    BigDecimal amount = criteria.getLoanAmount();
+    for (BigDecimal duration : simplifications(BigDecimal.valueOf(criteria.getDuration()))) {
+      simplifications.add(copy(criteria, duration.intValue(), rate, amount, null));
+    }
+    for (BigDecimal simplerAmount : simplifications(amount)) {
+      simplifications.add(copy(criteria, criteria.getDuration(), rate, simplerAmount, null));
+    }
+    for (BigDecimal simplerRate : simplifications(rate)) {
+      simplifications.add(copy(criteria, criteria.getDuration(), simplerRate, amount, null));
+    }
+    if (!SIMPLE_DATE.equals(criteria.getStatDate())) {
+      simplifications.add(copy(criteria, criteria.getDuration(), rate, amount, SIMPLE_DATE));
+    }
+    return simplifications;
+  }
+
+  // Fewer decimals first, then smaller whole numbers down to 1: 1 itself, then value minus half,
+  // quarter, ... of it, so the smallest mismatching number is found in logarithmic steps.
+  private static List<BigDecimal> simplifications(BigDecimal value) {
+    List<BigDecimal> simplifications = new ArrayList<>();
+    if (value.scale() > 0) {
+      BigDecimal truncated = value.setScale(value.scale() - 1, RoundingMode.DOWN);
+      simplifications.add(truncated.signum() > 0 ? truncated : BigDecimal.ONE);
+    } else if (value.compareTo(BigDecimal.ONE) > 0) {
+      simplifications.add(BigDecimal.ONE);
+      BigDecimal two = BigDecimal.valueOf(2);
+      for (BigDecimal step = value.divideToIntegralValue(two);
+          step.signum() > 0;
+          step = step.divideToIntegralValue(two)) {
+        simplifications.add(value.subtract(step).max(BigDecimal.ONE));
+      }
+    }
+    return simplifications;
+  }
+
+  private static PlanCriteria copy(
+      PlanCriteria criteria, int duration, BigDecimal rate, BigDecimal amount, Date startDate) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .nominalRate(rate)
+        .loanAmount(amount)
+        .statDate(startDate == null ? criteria.getStatDate() : startDate)
+        .precision(criteria.getPrecision())
+        .build();
+  }
+
+  /** Alternative service with its mismatch counters. */
+  private static final class Candidate {
+    private final String name;
+    private final RepaymentPlanService service;
+    private final boolean mustMatch;
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder mismatchCount = new LongAdder();
+    private final Queue<PlanCriteria> mismatches = new ConcurrentLinkedQueue<>();
+
+    private Candidate(String name, RepaymentPlanService service, boolean mustMatch) {
+      this.name = name;
+      this.service = service;
+      this.mustMatch = mustMatch;
+    }
+
+    private void compare(Outcome expected, PlanCriteria criteria) {
+      long startedAt = System.nanoTime();
+      Outcome actual = Outcome.of(service, criteria);
+      nanos.add(System.nanoTime() - startedAt);
+      if (!expected.matches(actual)) {
+        mismatchCount.increment();
+        // Only a few are kept for shrinking, size is checked without locking.
+        if (mismatches.size() < KEPT_MISMATCHES) {
+          mismatches.add(criteria);
+        }
+      }
+    }
+  }
+
+  /** Plan generated by a service, or the exception it failed with. */
+  private static final class Outcome {
+    private final RepaymentPlan plan;
+    private final Class<?> failure;
+
+    private Outcome(RepaymentPlan plan, Class<?> failure) {
+      this.plan = plan;
+      this.failure = failure;
+    }
+
+    private static Outcome of(RepaymentPlanService service, PlanCriteria criteria) {
+      try {
+        return new Outcome(service.getRepaymentPlan(criteria), null);
+      } catch (RuntimeException e) {
+        return new Outcome(null, e.getClass());
+      }
+    }
+
+    // Same payments to the cent, plan ids are not compared.
+    private boolean matches(Outcome other) {
+      if (plan == null || other.plan == null) {
+        return plan == other.plan && failure == other.failure;
+      }
+      List<Payment> expected = plan.getBorrowerPayments();
+      List<Payment> actual = other.plan.getBorrowerPayments();
+      if (!Objects.equals(plan.getTotal(), other.plan.getTotal())
+          || expected.size() != actual.size()) {
+        return false;
+      }
+      for (int i = 0; i < expected.size(); i++) {
+        Payment e = expected.get(i);
+        Payment a = actual.get(i);
+        if (!Objects.equals(e.getDate(), a.getDate())
+            || !sameCents(e.getBorrowerPaymentAmount(), a.getBorrowerPaymentAmount())
+            || !sameCents(e.getInterest(), a.getInterest())
+            || !sameCents(e.getPrincipal(), a.getPrincipal())
+            || !sameCents(e.getInitialOutstandingPrincipal(), a.getInitialOutstandingPrincipal())
+            || !sameCents(
+                e.getRemainingOutstandingPrincipal(), a.getRemainingOutstandingPrincipal())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static boolean sameCents(BigDecimal expected, BigDecimal actual) {
+      return expected
+              .setScale(2, RoundingMode.HALF_UP)
+              .compareTo(actual.setScale(2, RoundingMode.HALF_UP))
+          == 0;
+    }
+  }
+
+  /** Verification result of one candidate. */
+  static final class Result {
+    final String name;
+    final boolean mustMatch;
+    final long cases;
+    final long mismatches;
+    final long referenceNanos;
+    final long candidateNanos;
+    final List<PlanCriteria> shrunkMismatches;
+
+    private Result(
+        String name,
+        boolean mustMatch,
+        long cases,
+        long mismatches,
+        long referenceNanos,
+        long candidateNanos,
+        List<PlanCriteria> shrunkMismatches) {
+      this.name = name;
+      this.mustMatch = mustMatch;
+      this.cases = cases;
+      this.mismatches = mismatches;
+      this.referenceNanos = referenceNanos;
+      this.candidateNanos = candidateNanos;
+      this.shrunkMismatches = shrunkMismatches;
+    }
+
+    /** @return plans per second of one thread */
+    double plansPerSecond(long nanos) {
+      return cases * 1e9 / nanos;
+    }
+
+    /** @return how many times faster the candidate is than the reference */
+    double speedup() {
+      return (double) referenceNanos / candidateNanos;
+    }
+  }
+}
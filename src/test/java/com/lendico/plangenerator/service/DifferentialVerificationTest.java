@@ -0,0 +1,178 @@
+package com.lendico.plangenerator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import com.lendico.plangenerator.cache.NearPlanCache;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.impl.CachingRepaymentPlanService;
+import com.lendico.plangenerator.service.impl.PlanCalculator;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import com.lendico.plangenerator.utility.AmortizationTable;
+import com.lendico.plangenerator.utility.AmortizationTableGenerator;
+import com.lendico.plangenerator.utility.PrecisionProfile;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Differential verification of the faster calculation modes against {@link
+ * RepaymentPlanServiceImpl} without amortization table, the reference engine. Table and cache
+ * backed engines must match it to the cent, precision profiles are only reported. The report is
+ * written to target/differential-report.md. Run with {@code mvn test -Pperformance}, change the
+ * number of cases with -Ddifferential.cases and replay a run with -Ddifferential.seed.
+ */
+public class DifferentialVerificationTest {
+
+  public static final Logger LOGGER = LogManager.getLogger(DifferentialVerificationTest.class);
+
+  private static final long CASES = Long.getLong("differential.cases", 1_000_000);
+  private static final long SEED = Long.getLong("differential.seed", System.nanoTime());
+  private static final List<BigDecimal> RATES =
+      Arrays.asList(
+          new BigDecimal("3.5"),
+          BigDecimal.valueOf(4),
+          new BigDecimal("4.5"),
+          BigDecimal.valueOf(5),
+          new BigDecimal("5.5"),
+          BigDecimal.valueOf(6),
+          new BigDecimal("7.25"));
+  private static final List<Integer> DURATIONS = Arrays.asList(6, 12, 24, 36, 60, 120, 240, 360);
+
+  private final RepaymentPlanService reference = new RepaymentPlanServiceImpl();
+
+  @TempDir Path tempDir;
+
+  private static Level calculatorLevel;
+
+  // Without Spring the calculator logs every payment at debug, which dominates the run time.
+  @BeforeAll
+  public static void quietCalculator() {
+    ch.qos.logback.classic.Logger logger = calculatorLogger();
+    calculatorLevel = logger.getLevel();
+    logger.setLevel(Level.INFO);
+  }
+
+  @AfterAll
+  public static void restoreCalculator() {
+    calculatorLogger().setLevel(calculatorLevel);
+  }
+
+  private static ch.qos.logback.classic.Logger calculatorLogger() {
+    return (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(PlanCalculator.class);
+  }
+
+  /** Verify fast engines on random criteria and report their speed. */
+  @Test
+  @Tag("performance")
+  public void fastEnginesMatchReference() throws IOException {
+    Path file = tempDir.resolve("amortization.tbl");
+    AmortizationTableGenerator.generate(file, RATES, DURATIONS);
+    AmortizationTable table = AmortizationTable.load(file);
+    List<DifferentialHarness.Result> results =
+        new DifferentialHarness(reference, RATES, DURATIONS)
+            .candidate("amortization table", new RepaymentPlanServiceImpl(table), true)
+            .candidate(
+                "plan cache",
+                new CachingRepaymentPlanService(
+                    new RepaymentPlanServiceImpl(table), new NearPlanCache(10_000, 60_000)),
+                true)
+            .candidate("DECIMAL64", withPrecision(PrecisionProfile.DECIMAL64), false)
+            .candidate("DECIMAL32", withPrecision(PrecisionProfile.DECIMAL32), false)
+            .run(CASES, SEED);
+
+    StringBuilder report = new StringBuilder();
+    report.append("# Differential verification report\n\n");
+    report.append(String.format("%d random cases, seed %d%n%n", CASES, SEED));
+    report.append("| Engine | Must match | Mismatches | Reference plans/s | Plans/s | Speedup |\n");
+    report.append("|---|---|---|---|---|---|\n");
+    for (DifferentialHarness.Result result : results) {
+      report.append(
+          String.format(
+              "| %s | %s | %d | %.0f | %.0f | %.2fx |%n",
+              result.name,
+              result.mustMatch ? "yes" : "no",
+              result.mismatches,
+              result.plansPerSecond(result.referenceNanos),
+              result.plansPerSecond(result.candidateNanos),
+              result.speedup()));
+    }
+    for (DifferentialHarness.Result result : results) {
+      if (!result.shrunkMismatches.isEmpty()) {
+        report.append(String.format("%nShrunk mismatches of %s:%n%n", result.name));
+        for (PlanCriteria criteria : result.shrunkMismatches) {
+          report.append("- ").append(criteria).append('\n');
+        }
+      }
+    }
+    Path reportFile = Paths.get("target", "differential-report.md");
+    Files.createDirectories(reportFile.getParent());
+    Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8));
+    LOGGER.info("Differential verification of {} cases, report in {}", CASES, reportFile);
+
+    for (DifferentialHarness.Result result : results) {
+      if (result.mustMatch) {
+        assertThat(result.shrunkMismatches).as(result.name).isEmpty();
+        assertThat(result.mismatches).as(result.name).isZero();
+      }
+    }
+  }
+
+  /** Check the harness finds a wrong engine and shrinks the case to the simplest mismatch. */
+  @Test
+  public void harnessShrinksMismatch() {
+    // Drops the last payment of plans longer than 100 months.
+    RepaymentPlanService wrong =
+        criteria -> {
+          RepaymentPlan plan = reference.getRepaymentPlan(criteria);
+          if (criteria.getDuration() > 100) {
+            plan.getBorrowerPayments().remove(plan.getBorrowerPayments().size() - 1);
+          }
+          return plan;
+        };
+    List<DifferentialHarness.Result> results =
+        new DifferentialHarness(reference, RATES, DURATIONS)
+            .candidate("wrong", wrong, true)
+            .candidate("reference", new RepaymentPlanServiceImpl(), true)
+            .run(300, 42);
+
+    assertThat(results.get(0).mismatches).isPositive();
+    assertThat(results.get(0).shrunkMismatches)
+        .isNotEmpty()
+        .allSatisfy(
+            criteria -> {
+              assertThat(criteria.getDuration()).isEqualTo(101);
+              assertThat(criteria.getLoanAmount()).isEqualByComparingTo(BigDecimal.ONE);
+              assertThat(criteria.getNominalRate())
+                  .isEqualByComparingTo(BigDecimal.ONE)
+                  .satisfies(rate -> assertThat(rate.scale()).isZero());
+            });
+    assertThat(results.get(1).mismatches).isZero();
+  }
+
+  private RepaymentPlanService withPrecision(PrecisionProfile precision) {
+    return criteria ->
+        reference.getRepaymentPlan(
+            PlanCriteria.builder()
+                .duration(criteria.getDuration())
+                .nominalRate(criteria.getNominalRate())
+                .loanAmount(criteria.getLoanAmount())
+                .statDate(criteria.getStatDate())
+                .precision(precision)
+                .build());
+  }
+}
@@ -0,0 +1,217 @@
+package com.lendico.plangenerator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.impl.FilePlanStore;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import com.lendico.plangenerator.utility.AmortizationTable;
+import com.lendico.plangenerator.utility.PlanIdentifier;
+import com.lendico.plangenerator.utility.PrecisionProfile;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Persistent plan store tests */
+public class FilePlanStoreTest {
+
+  private final RepaymentPlanService repaymentPlanService = new RepaymentPlanServiceImpl();
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @TempDir Path tempDir;
+
+  /** Test plan id is deterministic and depends on every criteria field. */
+  @Test
+  public void testPlanIdentifier() {
+    Date startDate = new Date();
+    assertThat(PlanIdentifier.of(criteria(12, startDate), PrecisionProfile.EXACT_18))
+        .isEqualTo(PlanIdentifier.of(criteria(12, startDate), PrecisionProfile.EXACT_18))
+        .isNotEqualTo(PlanIdentifier.of(criteria(13, startDate), PrecisionProfile.EXACT_18))
+        .isNotEqualTo(
+            PlanIdentifier.of(
+                criteria(12, new Date(startDate.getTime() + 1)), PrecisionProfile.EXACT_18))
+        .hasSize(32);
+  }
+
+  /** Test plan id depends on the effective precision profile, requested or configured default. */
+  @Test
+  public void testPlanIdentifierPrecision() {
+    PlanCriteria criteria = criteria(12, new Date());
+    PlanCriteria exact =
+        PlanCriteria.builder()
+            .duration(criteria.getDuration())
+            .loanAmount(criteria.getLoanAmount())
+            .nominalRate(criteria.getNominalRate())
+            .statDate(criteria.getStatDate())
+            .precision(PrecisionProfile.EXACT_18)
+            .build();
+    String id = PlanIdentifier.of(criteria, PrecisionProfile.EXACT_18);
+    assertThat(PlanIdentifier.of(criteria, PrecisionProfile.DECIMAL64)).isNotEqualTo(id);
+    assertThat(PlanIdentifier.of(exact, PrecisionProfile.DECIMAL64)).isEqualTo(id);
+    assertThat(
+            new RepaymentPlanServiceImpl(AmortizationTable.EMPTY, PrecisionProfile.DECIMAL32)
+                .getPlanId(criteria))
+        .isEqualTo(PlanIdentifier.of(criteria, PrecisionProfile.DECIMAL32));
+  }
+
+  /** Test stored plan is returned byte by byte and survives reopening the store. */
+  @Test
+  public void testSaveAndFind() throws IOException {
+    Path file = tempDir.resolve("plans.log");
+    RepaymentPlan plan = plan(criteria(24, new Date()));
+    FilePlanStore store = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    store.save(plan);
+    store.save(plan);
+    assertThat(store.find(plan.getId())).contains(mapper.writeValueAsBytes(plan));
+    assertThat(store.find("unknown")).isEmpty();
+    long size = Files.size(file);
+    store.close();
+
+    FilePlanStore reopened = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    assertThat(Files.size(file)).isEqualTo(size);
+    assertThat(reopened.find(plan.getId())).contains(mapper.writeValueAsBytes(plan));
+    reopened.close();
+  }
+
+  /** Test deleted plans are removed by compaction while other plans stay readable. */
+  @Test
+  public void testDeleteAndCompact() throws IOException {
+    Path file = tempDir.resolve("plans.log");
+    FilePlanStore store = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    Date startDate = new Date();
+    RepaymentPlan kept = plan(criteria(12, startDate));
+    store.save(kept);
+    for (int duration = 13; duration < 20; duration++) {
+      RepaymentPlan deleted = plan(criteria(duration, startDate));
+      store.save(deleted);
+      assertThat(store.delete(deleted.getId())).isTrue();
+      assertThat(store.find(deleted.getId())).isEmpty();
+    }
+    assertThat(store.delete("unknown")).isFalse();
+    store.compact();
+    byte[] keptJson = mapper.writeValueAsBytes(kept);
+    assertThat(store.find(kept.getId())).contains(keptJson);
+    assertThat(Files.size(file)).isLessThan(2L * keptJson.length);
+    store.close();
+  }
+
+  /** Test torn record at the end of the log is quarantined and dropped when store is opened. */
+  @Test
+  public void testRecoverTornRecord() throws IOException {
+    Path file = tempDir.resolve("plans.log");
+    RepaymentPlan plan = plan(criteria(6, new Date()));
+    FilePlanStore store = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    store.save(plan);
+    store.close();
+    long size = Files.size(file);
+    byte[] torn = {0, 32, 0, 0, 1, 0, 42};
+    Files.write(file, torn, StandardOpenOption.APPEND);
+
+    FilePlanStore reopened = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    assertThat(Files.size(file)).isEqualTo(size);
+    assertThat(reopened.find(plan.getId())).isPresent();
+    reopened.close();
+    try (Stream<Path> files = Files.list(tempDir)) {
+      Path quarantine =
+          files
+              .filter(path -> path.getFileName().toString().startsWith("plans.log.corrupt-"))
+              .findFirst()
+              .orElseThrow(AssertionError::new);
+      assertThat(Files.readAllBytes(quarantine)).isEqualTo(torn);
+    }
+  }
+
+  /** Test record failing its checksum is skipped without dropping the records after it. */
+  @Test
+  public void testSkipCorruptedRecord() throws IOException {
+    Path file = tempDir.resolve("plans.log");
+    Date startDate = new Date();
+    RepaymentPlan corrupted = plan(criteria(6, startDate));
+    RepaymentPlan kept = plan(criteria(7, startDate));
+    FilePlanStore store = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    store.save(corrupted);
+    store.save(kept);
+    store.close();
+    byte[] log = Files.readAllBytes(file);
+    // Flip a byte in the payload of the first record.
+    log[100] ^= 1;
+    Files.write(file, log);
+
+    FilePlanStore reopened = new FilePlanStore(file, 0.5, 0, Long.MAX_VALUE, mapper);
+    assertThat(Files.size(file)).isEqualTo(log.length);
+    assertThat(reopened.find(corrupted.getId())).isEmpty();
+    assertThat(reopened.find(kept.getId())).contains(mapper.writeValueAsBytes(kept));
+    reopened.close();
+  }
+
+  /** Test oldest plans are evicted once live plans exceed the maximum size. */
+  @Test
+  public void testEvictOldestPlans() throws IOException {
+    Path file = tempDir.resolve("plans.log");
+    Date startDate = new Date();
+    RepaymentPlan oldest = plan(criteria(12, startDate));
+    RepaymentPlan newest = plan(criteria(13, startDate));
+    long maxBytes = mapper.writeValueAsBytes(newest).length + 100L;
+    FilePlanStore store = new FilePlanStore(file, 0.5, Long.MAX_VALUE, maxBytes, mapper);
+    store.save(oldest);
+    store.save(newest);
+    assertThat(store.find(oldest.getId())).isEmpty();
+    assertThat(store.find(newest.getId())).isPresent();
+    store.close();
+
+    FilePlanStore reopened = new FilePlanStore(file, 0.5, Long.MAX_VALUE, maxBytes, mapper);
+    assertThat(reopened.find(oldest.getId())).isEmpty();
+    assertThat(reopened.find(newest.getId())).isPresent();
+    reopened.close();
+  }
+
+  /** Test plans are kept without a maximum size. */
+  @Test
+  public void testWithoutMaxBytes() throws IOException {
+    FilePlanStore store = new FilePlanStore(tempDir.resolve("plans.log"), 0.5, 0, 0, mapper);
+    Date startDate = new Date();
+    List<RepaymentPlan> plans = new ArrayList<>();
+    for (int duration = 1; duration <= 20; duration++) {
+      RepaymentPlan plan = plan(criteria(duration, startDate));
+      store.save(plan);
+      plans.add(plan);
+    }
+    assertThat(plans).allMatch(plan -> store.find(plan.getId()).isPresent());
+    store.close();
+  }
+
+  /** Test relative store path is rejected. */
+  @Test
+  public void testRelativePath() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new FilePlanStore(Paths.get("plans.log"), 0.5, 0, Long.MAX_VALUE, mapper));
+  }
+
+  private RepaymentPlan plan(PlanCriteria criteria) {
+    RepaymentPlan plan = repaymentPlanService.getRepaymentPlan(criteria);
+    plan.setId(repaymentPlanService.getPlanId(criteria));
+    return plan;
+  }
+
+  private static PlanCriteria criteria(int duration, Date startDate) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .loanAmount(BigDecimal.valueOf(5000))
+        .nominalRate(BigDecimal.valueOf(5))
+        .statDate(startDate)
+        .build();
+  }
+}
@@ -0,0 +1,70 @@
+package com.lendico.plangenerator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lendico.plangenerator.configuration.PlanCostConfiguration;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.service.impl.PlanCostPolicyImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+/** Plan cost rule tests */
+public class PlanCostPolicyTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PlanCostPolicy planCostPolicy =
+      new PlanCostPolicyImpl(configuration(), meterRegistry);
+
+  /** Test plans within the limits are accepted. */
+  @Test
+  public void testWithinBudget() {
+    assertThat(planCostPolicy.check(criteria(1200, "7.99", "9999999999.99"))).isEmpty();
+    assertThat(
+            planCostPolicy.checkPortfolio(
+                Arrays.asList(criteria(1200, "5", "1000"), criteria(800, "5", "1000"))))
+        .isEmpty();
+    assertThat(meterRegistry.find(PlanCostPolicyImpl.METRIC).counters()).isEmpty();
+  }
+
+  /** Test every violated rule is reported and counted. */
+  @Test
+  public void testRejected() {
+    assertThat(planCostPolicy.check(criteria(1201, "5", "1000")))
+        .containsExactly("Duration cannot exceed 1200 months");
+    assertThat(planCostPolicy.check(criteria(12, "1E-30", "1E+30")))
+        .containsExactly(
+            "Nominal rate cannot have more than 20 digits",
+            "Loan amount cannot have more than 20 digits");
+    assertThat(
+            planCostPolicy.checkPortfolio(
+                Arrays.asList(criteria(1200, "5", "1000"), criteria(801, "5", "1000"))))
+        .containsExactly("Durations of the portfolio cannot add up to more than 2000 months");
+    assertThat(meterRegistry.counter(PlanCostPolicyImpl.METRIC, "rule", "duration").count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.counter(PlanCostPolicyImpl.METRIC, "rule", "digits").count())
+        .isEqualTo(2);
+    assertThat(meterRegistry.counter(PlanCostPolicyImpl.METRIC, "rule", "portfolio-months").count())
+        .isEqualTo(1);
+  }
+
+  private static PlanCostConfiguration configuration() {
+    PlanCostConfiguration configuration = new PlanCostConfiguration();
+    configuration.setMaxDuration(1200);
+    configuration.setMaxDigits(20);
+    configuration.setMaxPortfolioMonths(2000);
+    return configuration;
+  }
+
+  private static PlanCriteria criteria(int duration, String rate, String amount) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .nominalRate(new BigDecimal(rate))
+        .loanAmount(new BigDecimal(amount))
+        .statDate(new Date())
+        .build();
+  }
+}
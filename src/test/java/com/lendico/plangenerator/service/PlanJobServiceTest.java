@@ -0,0 +1,268 @@
+package com.lendico.plangenerator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.configuration.PlanCostConfiguration;
+import com.lendico.plangenerator.configuration.PlanJobConfiguration;
+import com.lendico.plangenerator.domain.JobStatus;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.PlanJob;
+import com.lendico.plangenerator.exception.CriteriaValidationException;
+import com.lendico.plangenerator.exception.JobLimitException;
+import com.lendico.plangenerator.exception.JobNotCompletedException;
+import com.lendico.plangenerator.exception.JobNotFoundException;
+import com.lendico.plangenerator.service.impl.PlanCostPolicyImpl;
+import com.lendico.plangenerator.service.impl.PlanJobServiceImpl;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Bulk plan job tests */
+public class PlanJobServiceTest {
+
+  private final RepaymentPlanService repaymentPlanService = new RepaymentPlanServiceImpl();
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private PlanJobServiceImpl planJobService;
+
+  @TempDir Path tempDir;
+
+  @AfterEach
+  public void shutdown() {
+    release.countDown();
+    if (planJobService != null) {
+      planJobService.shutdown();
+    }
+  }
+
+  /** Test results of a completed job are spooled in portfolio order. */
+  @Test
+  public void testCompletedJob() throws Exception {
+    planJobService = service(repaymentPlanService);
+    List<PlanCriteria> portfolio = new ArrayList<>();
+    for (int duration = 1; duration <= 50; duration++) {
+      portfolio.add(criteria(duration));
+    }
+    // Zero rate cannot be calculated, it is reported without failing the job.
+    portfolio.add(
+        PlanCriteria.builder()
+            .duration(12)
+            .loanAmount(BigDecimal.valueOf(1000))
+            .nominalRate(BigDecimal.ZERO)
+            .statDate(new Date())
+            .build());
+    PlanJob job = planJobService.submit(portfolio, "test");
+    PlanJob finished = awaitFinished(job.getId(), "test");
+    assertThat(finished.getStatus()).isEqualTo(JobStatus.COMPLETED);
+    assertThat(finished.getCompleted()).isEqualTo(51);
+    assertThat(finished.getFailed()).isEqualTo(1);
+
+    JsonNode results = mapper.readTree(planJobService.getResult(job.getId(), "test").toFile());
+    assertThat(results.size()).isEqualTo(51);
+    for (int index = 0; index < 50; index++) {
+      assertThat(results.get(index).get("index").asInt()).isEqualTo(index);
+      JsonNode plan = results.get(index).get("plan");
+      assertThat(plan.get("total").asLong()).isEqualTo(index + 1L);
+      // Compared as json trees, reading amounts back to BigDecimal would not keep 0.00 and dates
+      // are written in seconds.
+      assertThat(plan.get("borrowerPayments"))
+          .isEqualTo(
+              mapper.readTree(
+                  mapper.writeValueAsBytes(
+                      repaymentPlanService
+                          .getRepaymentPlan(portfolio.get(index))
+                          .getBorrowerPayments())));
+    }
+    assertThat(results.get(50).has("error")).isTrue();
+  }
+
+  /** Test concurrent jobs per principal are limited and cancelled jobs free their slot. */
+  @Test
+  public void testLimitAndCancel() throws Exception {
+    planJobService =
+        service(
+            criteria -> {
+              try {
+                release.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return repaymentPlanService.getRepaymentPlan(criteria);
+            });
+    List<PlanCriteria> portfolio = Arrays.asList(criteria(12), criteria(24));
+    // Both workers are blocked by the first two jobs, the third one stays queued.
+    PlanJob other = planJobService.submit(portfolio, "other");
+    PlanJob first = planJobService.submit(portfolio, "test");
+    PlanJob second = planJobService.submit(portfolio, "test");
+    Assertions.assertThrows(
+        JobLimitException.class, () -> planJobService.submit(portfolio, "test"));
+
+    Assertions.assertThrows(
+        JobNotCompletedException.class, () -> planJobService.getResult(first.getId(), "test"));
+    Assertions.assertThrows(
+        JobNotFoundException.class, () -> planJobService.getJob(first.getId(), "other"));
+
+    assertThat(planJobService.cancel(second.getId(), "test").getStatus())
+        .isEqualTo(JobStatus.CANCELLED);
+    PlanJob third = planJobService.submit(portfolio, "test");
+    planJobService.cancel(first.getId(), "test");
+    release.countDown();
+    assertThat(awaitFinished(first.getId(), "test").getStatus()).isEqualTo(JobStatus.CANCELLED);
+    assertThat(awaitFinished(third.getId(), "test").getStatus()).isEqualTo(JobStatus.COMPLETED);
+    assertThat(awaitFinished(other.getId(), "other").getStatus()).isEqualTo(JobStatus.COMPLETED);
+    // Only completed jobs keep their results.
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertThat(files.count()).isEqualTo(2);
+    }
+  }
+
+  /** Test only spool files of a previous run are deleted at startup. */
+  @Test
+  public void testLeftoverSpoolFilesDeleted() throws IOException {
+    Path leftover = tempDir.resolve("plan-job-" + UUID.randomUUID() + ".json");
+    Path other = tempDir.resolve("results.json");
+    Files.write(leftover, "[]".getBytes(StandardCharsets.UTF_8));
+    Files.write(other, "[]".getBytes(StandardCharsets.UTF_8));
+    planJobService = service(repaymentPlanService);
+    assertThat(leftover).doesNotExist();
+    assertThat(other).exists();
+  }
+
+  /** Test relative spool directory is rejected. */
+  @Test
+  public void testRelativeSpoolDirectory() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> service(repaymentPlanService, Duration.ofHours(1), Paths.get("jobs")));
+  }
+
+  /** Test expired jobs and their results are removed without further submissions. */
+  @Test
+  public void testExpiredJobsRemoved() throws Exception {
+    planJobService = service(repaymentPlanService, Duration.ofMillis(50));
+    PlanJob job = planJobService.submit(Arrays.asList(criteria(12)), "test");
+    assertThat(awaitFinished(job.getId(), "test").getStatus()).isEqualTo(JobStatus.COMPLETED);
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (countFiles() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(countFiles()).isZero();
+    Assertions.assertThrows(
+        JobNotFoundException.class, () -> planJobService.getJob(job.getId(), "test"));
+  }
+
+  /** Test invalid portfolio is rejected with the error of every criteria. */
+  @Test
+  public void testInvalidPortfolio() throws IOException {
+    planJobService = service(repaymentPlanService);
+    CriteriaValidationException exception =
+        Assertions.assertThrows(
+            CriteriaValidationException.class,
+            () ->
+                planJobService.submit(
+                    Arrays.asList(criteria(12), PlanCriteria.builder().duration(0).build()),
+                    "test"));
+    assertThat(exception.getErrors()).hasSize(4).contains("[1] " + PlanCriteria.DURATION_MIN);
+    Assertions.assertThrows(
+        CriteriaValidationException.class,
+        () -> planJobService.submit(Collections.emptyList(), "test"));
+  }
+
+  /** Test portfolio exceeding the cost limits is rejected. */
+  @Test
+  public void testPortfolioCost() throws IOException {
+    planJobService = service(repaymentPlanService);
+    assertThat(
+            Assertions.assertThrows(
+                    CriteriaValidationException.class,
+                    () -> planJobService.submit(Arrays.asList(criteria(12), criteria(361)), "test"))
+                .getErrors())
+        .containsExactly("[1] Duration cannot exceed 360 months");
+    List<PlanCriteria> portfolio = new ArrayList<>();
+    for (int index = 0; index < 30; index++) {
+      portfolio.add(criteria(360));
+    }
+    assertThat(
+            Assertions.assertThrows(
+                    CriteriaValidationException.class,
+                    () -> planJobService.submit(portfolio, "test"))
+                .getErrors())
+        .containsExactly("Durations of the portfolio cannot add up to more than 10000 months");
+  }
+
+  private PlanJobServiceImpl service(RepaymentPlanService service) throws IOException {
+    return service(service, Duration.ofHours(1));
+  }
+
+  private PlanJobServiceImpl service(RepaymentPlanService service, Duration retention)
+      throws IOException {
+    return service(service, retention, tempDir);
+  }
+
+  private PlanJobServiceImpl service(
+      RepaymentPlanService service, Duration retention, Path spoolDirectory) throws IOException {
+    PlanJobConfiguration configuration = new PlanJobConfiguration();
+    configuration.setWorkerThreads(2);
+    configuration.setMaxQueuedJobs(10);
+    configuration.setMaxJobsPerPrincipal(2);
+    configuration.setMaxPortfolioSize(100);
+    configuration.setSpoolDirectory(spoolDirectory.toString());
+    configuration.setRetention(retention);
+    configuration.setCleanupInterval(Duration.ofMillis(20));
+    PlanCostConfiguration costConfiguration = new PlanCostConfiguration();
+    costConfiguration.setMaxDuration(360);
+    costConfiguration.setMaxDigits(20);
+    costConfiguration.setMaxPortfolioMonths(10_000);
+    return new PlanJobServiceImpl(
+        service,
+        mapper,
+        new PlanCostPolicyImpl(costConfiguration, new SimpleMeterRegistry()),
+        configuration);
+  }
+
+  private PlanJob awaitFinished(String id, String owner) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    PlanJob job = planJobService.getJob(id, owner);
+    while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      job = planJobService.getJob(id, owner);
+    }
+    return job;
+  }
+
+  private static PlanCriteria criteria(int duration) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .loanAmount(BigDecimal.valueOf(5000))
+        .nominalRate(BigDecimal.valueOf(5))
+        .statDate(new Date())
+        .build();
+  }
+
+  private long countFiles() throws IOException {
+    try (Stream<Path> files = Files.list(tempDir)) {
+      return files.count();
+    }
+  }
+}
@@ -2,10 +2,14 @@ package com.lendico.plangenerator.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.lendico.plangenerator.deadline.RequestDeadline;
 import com.lendico.plangenerator.domain.PlanCriteria;
 import com.lendico.plangenerator.domain.RepaymentPlan;
 import com.lendico.plangenerator.exception.DataException;
+import com.lendico.plangenerator.exception.DeadlineExceededException;
 import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import com.lendico.plangenerator.utility.AmortizationTable;
+import com.lendico.plangenerator.utility.PrecisionProfile;
 import java.math.BigDecimal;
 import java.util.Date;
 import org.junit.jupiter.api.Assertions;
@@ -57,4 +61,47 @@ public class RepaymentPlanServiceTest {
     RepaymentPlan plan = repaymentPlanService.getRepaymentPlan(criteria);
     assertThat(criteria.getDuration()).isEqualTo(plan.getTotal().intValue());
   }
+
+  /** Test requested precision profile overrides the configured default. */
+  @Test
+  public void testPrecisionProfileGetPlanService() {
+    Date startDate = new Date();
+    PlanCriteria.PlanCriteriaBuilder criteria =
+        PlanCriteria.builder()
+            .duration(36)
+            .loanAmount(BigDecimal.valueOf(25000))
+            .nominalRate(new BigDecimal("4.5"))
+            .statDate(startDate);
+    RepaymentPlanService decimal64Default =
+        new RepaymentPlanServiceImpl(AmortizationTable.EMPTY, PrecisionProfile.DECIMAL64);
+    assertThat(decimal64Default.getRepaymentPlan(criteria.build()))
+        .isEqualTo(
+            repaymentPlanService.getRepaymentPlan(
+                criteria.precision(PrecisionProfile.DECIMAL64).build()));
+    assertThat(
+            decimal64Default.getRepaymentPlan(
+                criteria.precision(PrecisionProfile.EXACT_18).build()))
+        .isEqualTo(repaymentPlanService.getRepaymentPlan(criteria.precision(null).build()));
+  }
+
+  /** Test generation is aborted once the deadline of the request has passed. */
+  @Test
+  public void testDeadlineGetPlanService() {
+    PlanCriteria criteria =
+        PlanCriteria.builder()
+            .duration(1000)
+            .loanAmount(BigDecimal.valueOf(2000))
+            .nominalRate(BigDecimal.valueOf(5))
+            .statDate(new Date())
+            .build();
+    RequestDeadline deadline = RequestDeadline.start(0);
+    try {
+      Assertions.assertThrows(
+          DeadlineExceededException.class, () -> repaymentPlanService.getRepaymentPlan(criteria));
+      assertThat(deadline.isExceeded()).isTrue();
+    } finally {
+      deadline.finish();
+    }
+    assertThat(repaymentPlanService.getRepaymentPlan(criteria).getTotal()).isEqualTo(1000);
+  }
 }
@@ -0,0 +1,64 @@
+package com.lendico.plangenerator.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.PlanCalculator;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import com.lendico.plangenerator.utility.AmortizationTable;
+import com.lendico.plangenerator.utility.PrecisionProfile;
+import java.math.BigDecimal;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+/** Stage timing of plan generation tests */
+public class StageTimingPostProcessorTest {
+
+  private final StageTimingPostProcessor postProcessor = new StageTimingPostProcessor();
+
+  /** Test generation ends the checks and times annuity and schedule separately. */
+  @Test
+  public void testGenerationStages() {
+    RepaymentPlanService service = service();
+    assertThat(service).isInstanceOf(RepaymentPlanServiceImpl.class);
+    StageTimings timings = StageTimings.start();
+    StageTimings.begin(Stage.CHECK);
+    assertThat(service.getRepaymentPlan(criteria(24)).getTotal()).isEqualTo(24L);
+    timings.finish();
+    assertThat(timings.getNanos(Stage.CHECK)).isGreaterThanOrEqualTo(0);
+    assertThat(timings.getNanos(Stage.ANNUITY)).isGreaterThan(0);
+    assertThat(timings.getNanos(Stage.SCHEDULE)).isGreaterThan(0);
+    assertThat(timings.toServerTiming())
+        .matches("check;dur=[0-9.]+, annuity;dur=[0-9.]+, schedule;dur=[0-9.]+, total;dur=[0-9.]+");
+  }
+
+  /** Test other beans are not proxied and services called outside of requests are not timed. */
+  @Test
+  public void testUntimed() {
+    Object bean = new Object();
+    assertThat(postProcessor.postProcessAfterInitialization(bean, "bean")).isSameAs(bean);
+    assertThat(service().getRepaymentPlan(criteria(1)).getTotal()).isEqualTo(1L);
+  }
+
+  // Wired like the application context, the service calls the proxied calculator.
+  private RepaymentPlanService service() {
+    PlanCalculator planCalculator =
+        (PlanCalculator)
+            postProcessor.postProcessAfterInitialization(
+                new PlanCalculator(AmortizationTable.EMPTY), "planCalculator");
+    return (RepaymentPlanService)
+        postProcessor.postProcessAfterInitialization(
+            new RepaymentPlanServiceImpl(planCalculator, PrecisionProfile.EXACT_18),
+            "repaymentPlanService");
+  }
+
+  private static PlanCriteria criteria(int duration) {
+    return PlanCriteria.builder()
+        .duration(duration)
+        .loanAmount(BigDecimal.valueOf(5000))
+        .nominalRate(BigDecimal.valueOf(5))
+        .statDate(new Date())
+        .build();
+  }
+}
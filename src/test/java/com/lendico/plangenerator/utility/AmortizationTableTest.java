@@ -0,0 +1,80 @@
+package com.lendico.plangenerator.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Amortization table tests */
+public class AmortizationTableTest {
+
+  private static final List<BigDecimal> RATES =
+      Arrays.asList(new BigDecimal("3.5"), BigDecimal.valueOf(5), new BigDecimal("7.25"));
+  private static final List<Integer> DURATIONS = Arrays.asList(1, 12, 24, 60, 360);
+
+  @TempDir Path tempDir;
+
+  /** Test plans served from the table are identical to live calculation. */
+  @Test
+  public void testTablePlansIdenticalToLiveCalculation() throws IOException {
+    Path file = tempDir.resolve("amortization.tbl");
+    int entries = AmortizationTableGenerator.generate(file, RATES, DURATIONS);
+    AmortizationTable table = AmortizationTable.load(file);
+    assertThat(table.size()).isEqualTo(entries).isEqualTo(RATES.size() * DURATIONS.size());
+
+    RepaymentPlanService live = new RepaymentPlanServiceImpl();
+    RepaymentPlanService tabulated = new RepaymentPlanServiceImpl(table);
+    Date startDate = new Date();
+    for (BigDecimal rate : RATES) {
+      for (Integer duration : DURATIONS) {
+        assertThat(table.getDiscountFactor(rate, duration)).isNotNull();
+        for (BigDecimal amount :
+            Arrays.asList(
+                BigDecimal.valueOf(1), new BigDecimal("5000"), new BigDecimal("123456.78"))) {
+          PlanCriteria criteria =
+              PlanCriteria.builder()
+                  .duration(duration)
+                  .loanAmount(amount)
+                  .nominalRate(rate)
+                  .statDate(startDate)
+                  .build();
+          assertThat(tabulated.getRepaymentPlan(criteria))
+              .isEqualTo(live.getRepaymentPlan(criteria));
+        }
+      }
+    }
+  }
+
+  /** Test rates in another representation hit the table, unknown pairs miss it. */
+  @Test
+  public void testLookup() throws IOException {
+    Path file = tempDir.resolve("amortization.tbl");
+    AmortizationTableGenerator.generate(file, RATES, DURATIONS);
+    AmortizationTable table = AmortizationTable.load(file);
+    assertThat(table.getDiscountFactor(new BigDecimal("5.000"), 12))
+        .isEqualTo(table.getDiscountFactor(BigDecimal.valueOf(5), 12));
+    assertThat(table.getDiscountFactor(new BigDecimal("5.25"), 12)).isNull();
+    assertThat(table.getDiscountFactor(BigDecimal.valueOf(5), 13)).isNull();
+    assertThat(table.getDiscountFactor(new BigDecimal("5.00001"), 12)).isNull();
+    assertThat(AmortizationTable.EMPTY.getDiscountFactor(BigDecimal.valueOf(5), 12)).isNull();
+  }
+
+  /** Test invalid file is rejected. */
+  @Test
+  public void testInvalidFile() throws IOException {
+    Path file = tempDir.resolve("invalid.tbl");
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+    Assertions.assertThrows(IOException.class, () -> AmortizationTable.load(file));
+  }
+}
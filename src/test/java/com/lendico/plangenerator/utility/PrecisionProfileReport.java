@@ -0,0 +1,168 @@
+package com.lendico.plangenerator.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lendico.plangenerator.domain.Payment;
+import com.lendico.plangenerator.domain.PlanCriteria;
+import com.lendico.plangenerator.domain.RepaymentPlan;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Accuracy versus speed report of the precision profiles. Every profile generates the same grid of
+ * plans, which are compared to the {@link PrecisionProfile#EXACT_18} reference to the cent. The
+ * report is written to target/precision-report.md. Run with {@code mvn test -Pperformance}.
+ */
+@Tag("performance")
+public class PrecisionProfileReport {
+
+  public static final Logger LOGGER = LogManager.getLogger(PrecisionProfileReport.class);
+
+  private static final List<BigDecimal> RATES =
+      Arrays.asList(
+          new BigDecimal("0.5"),
+          new BigDecimal("2.75"),
+          BigDecimal.valueOf(5),
+          new BigDecimal("7.99"),
+          BigDecimal.valueOf(15));
+  private static final List<BigDecimal> AMOUNTS =
+      Arrays.asList(
+          BigDecimal.valueOf(100),
+          BigDecimal.valueOf(5000),
+          new BigDecimal("123456.78"),
+          new BigDecimal("9999999.99"));
+  private static final List<Integer> DURATIONS = Arrays.asList(6, 12, 24, 60, 120, 240, 360);
+  private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 20);
+
+  private final RepaymentPlanService repaymentPlanService = new RepaymentPlanServiceImpl();
+
+  /** Generate grid with every profile and write the report. */
+  @Test
+  public void reportAccuracyAndSpeed() throws IOException {
+    Map<PrecisionProfile, List<RepaymentPlan>> plans = new EnumMap<>(PrecisionProfile.class);
+    Map<PrecisionProfile, Double> microsPerPlan = new EnumMap<>(PrecisionProfile.class);
+    Date startDate = new Date();
+    for (PrecisionProfile profile : PrecisionProfile.values()) {
+      generate(profile, startDate);
+    }
+    for (PrecisionProfile profile : PrecisionProfile.values()) {
+      long start = System.nanoTime();
+      List<RepaymentPlan> generated = null;
+      for (int round = 0; round < ROUNDS; round++) {
+        generated = generate(profile, startDate);
+      }
+      microsPerPlan.put(profile, (System.nanoTime() - start) / 1000.0 / ROUNDS / generated.size());
+      plans.put(profile, generated);
+    }
+
+    List<RepaymentPlan> reference = plans.get(PrecisionProfile.EXACT_18);
+    StringBuilder report = new StringBuilder();
+    report.append("# Precision profile report\n\n");
+    report.append(
+        String.format(
+            "%d plans per profile: rates %s, amounts %s, durations %s%n%n",
+            reference.size(), RATES, AMOUNTS, DURATIONS));
+    report.append("| Profile | us/plan | Speedup | Diverging plans | Max difference | Example |\n");
+    report.append("|---|---|---|---|---|---|\n");
+    for (PrecisionProfile profile : PrecisionProfile.values()) {
+      List<RepaymentPlan> candidate = plans.get(profile);
+      int diverging = 0;
+      BigDecimal maxDifference = BigDecimal.ZERO;
+      String example = "";
+      for (int i = 0; i < reference.size(); i++) {
+        BigDecimal difference = maxDifference(reference.get(i), candidate.get(i));
+        if (difference.signum() != 0) {
+          diverging++;
+          if (difference.compareTo(maxDifference) > 0) {
+            maxDifference = difference;
+            example = describe(i);
+          }
+        }
+      }
+      if (profile == PrecisionProfile.EXACT_18) {
+        assertThat(diverging).isZero();
+      }
+      report.append(
+          String.format(
+              "| %s | %.1f | %.2fx | %d | %s | %s |%n",
+              profile,
+              microsPerPlan.get(profile),
+              microsPerPlan.get(PrecisionProfile.EXACT_18) / microsPerPlan.get(profile),
+              diverging,
+              maxDifference.toPlainString(),
+              example));
+    }
+    Path file = Paths.get("target", "precision-report.md");
+    Files.createDirectories(file.getParent());
+    Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+    LOGGER.info("Precision profile report in {}", file);
+  }
+
+  private List<RepaymentPlan> generate(PrecisionProfile profile, Date startDate) {
+    List<RepaymentPlan> generated = new ArrayList<>();
+    for (BigDecimal rate : RATES) {
+      for (BigDecimal amount : AMOUNTS) {
+        for (Integer duration : DURATIONS) {
+          generated.add(
+              repaymentPlanService.getRepaymentPlan(
+                  PlanCriteria.builder()
+                      .duration(duration)
+                      .nominalRate(rate)
+                      .loanAmount(amount)
+                      .statDate(startDate)
+                      .precision(profile)
+                      .build()));
+        }
+      }
+    }
+    return generated;
+  }
+
+  // Grid position to criteria, same loop order as generate.
+  private static String describe(int index) {
+    int duration = index % DURATIONS.size();
+    int amount = index / DURATIONS.size() % AMOUNTS.size();
+    int rate = index / DURATIONS.size() / AMOUNTS.size();
+    return String.format(
+        "rate %s, amount %s, duration %d",
+        RATES.get(rate), AMOUNTS.get(amount), DURATIONS.get(duration));
+  }
+
+  // Largest absolute difference of any amount of any payment.
+  private static BigDecimal maxDifference(RepaymentPlan reference, RepaymentPlan candidate) {
+    BigDecimal max = BigDecimal.ZERO;
+    List<Payment> expected = reference.getBorrowerPayments();
+    List<Payment> actual = candidate.getBorrowerPayments();
+    for (int i = 0; i < expected.size(); i++) {
+      Payment e = expected.get(i);
+      Payment a = actual.get(i);
+      for (BigDecimal difference :
+          Arrays.asList(
+              e.getBorrowerPaymentAmount().subtract(a.getBorrowerPaymentAmount()),
+              e.getInterest().subtract(a.getInterest()),
+              e.getPrincipal().subtract(a.getPrincipal()),
+              e.getInitialOutstandingPrincipal().subtract(a.getInitialOutstandingPrincipal()),
+              e.getRemainingOutstandingPrincipal()
+                  .subtract(a.getRemainingOutstandingPrincipal()))) {
+        max = max.max(difference.abs());
+      }
+    }
+    return max;
+  }
+}
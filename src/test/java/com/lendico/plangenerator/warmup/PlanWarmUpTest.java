@@ -0,0 +1,81 @@
+package com.lendico.plangenerator.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lendico.plangenerator.configuration.WarmUpConfiguration;
+import com.lendico.plangenerator.service.RepaymentPlanService;
+import com.lendico.plangenerator.service.impl.RepaymentPlanServiceImpl;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+/** Startup warm-up tests */
+public class PlanWarmUpTest {
+
+  private final List<Object> events = new ArrayList<>();
+
+  /** Test readiness is refused while warming up and accepted afterwards. */
+  @Test
+  public void testReadinessAfterWarmUp() throws Exception {
+    PlanWarmUp planWarmUp =
+        new PlanWarmUp(
+            new RepaymentPlanServiceImpl(),
+            new ObjectMapper(),
+            events::add,
+            configuration(20, 0.5, 2, Duration.ofSeconds(10)));
+    planWarmUp.run(null);
+    assertThat(events)
+        .extracting(event -> (ReadinessState) ((AvailabilityChangeEvent<?>) event).getState())
+        .containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+  }
+
+  /** Test every batch generates plans from the mix, failures would only be logged by run. */
+  @Test
+  public void testPlansGenerated() {
+    RepaymentPlanServiceImpl delegate = new RepaymentPlanServiceImpl();
+    AtomicInteger generated = new AtomicInteger();
+    RepaymentPlanService repaymentPlanService =
+        criteria -> {
+          generated.incrementAndGet();
+          return delegate.getRepaymentPlan(criteria);
+        };
+    PlanWarmUp planWarmUp =
+        new PlanWarmUp(
+            repaymentPlanService,
+            new ObjectMapper(),
+            events::add,
+            configuration(20, 0.5, 2, Duration.ofSeconds(10)));
+    int batches = planWarmUp.warmUp();
+    assertThat(batches).isPositive();
+    assertThat(generated.get()).isEqualTo(batches * 20);
+  }
+
+  /** Test warm-up stops at the maximum duration when latency does not stabilize. */
+  @Test
+  public void testMaxDuration() {
+    PlanWarmUp planWarmUp =
+        new PlanWarmUp(
+            new RepaymentPlanServiceImpl(),
+            new ObjectMapper(),
+            events::add,
+            configuration(10, 0, Integer.MAX_VALUE, Duration.ofMillis(200)));
+    long startedAt = System.nanoTime();
+    assertThat(planWarmUp.warmUp()).isPositive();
+    assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(5));
+  }
+
+  private static WarmUpConfiguration configuration(
+      int batchSize, double tolerance, int stableBatches, Duration maxDuration) {
+    WarmUpConfiguration configuration = new WarmUpConfiguration();
+    configuration.setBatchSize(batchSize);
+    configuration.setTolerance(tolerance);
+    configuration.setStableBatches(stableBatches);
+    configuration.setMaxDuration(maxDuration);
+    return configuration;
+  }
+}